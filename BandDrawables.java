@@ -0,0 +1,83 @@
+package com.EcoChartPro.plugins.community;
+
+import com.EcoChartPro.api.indicator.ApiKLine;
+import com.EcoChartPro.api.indicator.drawing.DataPoint;
+import com.EcoChartPro.api.indicator.drawing.DrawableBox;
+import com.EcoChartPro.api.indicator.drawing.DrawableLine;
+import com.EcoChartPro.api.indicator.drawing.DrawableObject;
+
+import java.awt.Color;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Memoized overbought/oversold band of an RSI pane: the band box and the two level lines.
+ * The lines are rebuilt only when the levels or the band color change; the box only when its
+ * first or last timestamp moves as well.
+ */
+final class BandDrawables {
+
+    private List<DrawableObject> drawables;
+    /** Whether the host already holds the current drawables. */
+    private boolean delivered;
+    private long startMillis;
+    private long endMillis;
+    private int overbought;
+    private int oversold;
+    private Color color;
+
+    /** Returns the band for the given history and settings, reusing whatever is unchanged. */
+    List<DrawableObject> get(List<ApiKLine> klineData, Map<String, Object> settings) {
+        int newOverbought = (Integer) settings.get("Overbought");
+        int newOversold = (Integer) settings.get("Oversold");
+        Color newColor = (Color) settings.get("Band Color");
+        ApiKLine first = klineData.get(0);
+        ApiKLine last = klineData.get(klineData.size() - 1);
+        long newStartMillis = first.timestamp().toEpochMilli();
+        long newEndMillis = last.timestamp().toEpochMilli();
+
+        boolean stylesChanged = drawables == null || newOverbought != overbought || newOversold != oversold
+            || !newColor.equals(color);
+        if (!stylesChanged && newStartMillis == startMillis && newEndMillis == endMillis) {
+            return drawables;
+        }
+
+        BigDecimal overboughtLevel = BigDecimal.valueOf(newOverbought);
+        BigDecimal oversoldLevel = BigDecimal.valueOf(newOversold);
+        DataPoint corner1 = new DataPoint(first.timestamp(), overboughtLevel);
+        DataPoint corner2 = new DataPoint(last.timestamp(), oversoldLevel);
+        DrawableBox box = new DrawableBox(corner1, corner2, newColor, null, 0f);
+        if (stylesChanged) {
+            Color lineColor = newColor.darker();
+            drawables = List.of(
+                box,
+                new DrawableLine.Horizontal(overboughtLevel, lineColor, 1.0f, true),
+                new DrawableLine.Horizontal(oversoldLevel, lineColor, 1.0f, true)
+            );
+        } else {
+            // Only the box's extent moved; the level lines are reused.
+            drawables = List.of(box, drawables.get(1), drawables.get(2));
+        }
+
+        delivered = false;
+        startMillis = newStartMillis;
+        endMillis = newEndMillis;
+        overbought = newOverbought;
+        oversold = newOversold;
+        color = newColor;
+        return drawables;
+    }
+
+    /** Marks the current band as handed to the host. Returns whether it already had it. */
+    boolean markDelivered() {
+        boolean wasDelivered = delivered;
+        delivered = true;
+        return wasDelivered;
+    }
+
+    void invalidate() {
+        drawables = null;
+        delivered = false;
+    }
+}
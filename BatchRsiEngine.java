@@ -0,0 +1,144 @@
+package com.EcoChartPro.plugins.community;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Headless RSI for screening many instruments at once, without IndicatorContexts, settings
+ * maps or drawables.
+ * The Wilder state of every instrument lives in primitive columns indexed by instrument
+ * number. Each call feeds a structure-of-arrays block of closes, one column per bar, and
+ * writes one RSI value per instrument. Instruments are processed in parallel blocks on the
+ * ForkJoin common pool.
+ * The arithmetic is that of {@link StatefulRsiIndicator} in DOUBLE mode, including its
+ * seeding (see {@link WilderMath}): the first RSI is produced on the period-th change.
+ * An engine must not be updated from two threads at once.
+ */
+public final class BatchRsiEngine {
+
+    /** Instruments per parallel task; small enough to spread 8k symbols over all cores. */
+    private static final int BLOCK = 512;
+
+    private final int instruments;
+    private final int period;
+    private final double smoothing;
+
+    private final double[] prevClose;
+    private final double[] avgGain;
+    private final double[] avgLoss;
+    /** Closes seen per instrument, saturating at period + 1 once seeded. */
+    private final int[] barsSeen;
+
+    public BatchRsiEngine(int instruments, int period) {
+        if (instruments < 0) {
+            throw new IllegalArgumentException("instruments must not be negative: " + instruments);
+        }
+        if (period < 1) {
+            throw new IllegalArgumentException("period must be at least 1: " + period);
+        }
+        this.instruments = instruments;
+        this.period = period;
+        this.smoothing = period - 1;
+        this.prevClose = new double[instruments];
+        this.avgGain = new double[instruments];
+        this.avgLoss = new double[instruments];
+        this.barsSeen = new int[instruments];
+    }
+
+    public int instruments() {
+        return instruments;
+    }
+
+    public int period() {
+        return period;
+    }
+
+    /**
+     * Applies one new close per instrument. {@code closes[k]} is the close of instrument k, or
+     * NaN if it has no new bar. Writes the RSI of every instrument into {@code rsiOut[k]}, NaN
+     * while it is still seeding.
+     */
+    public void update(double[] closes, double[] rsiOut) {
+        update(closes, 1, rsiOut);
+    }
+
+    /**
+     * Applies {@code bars} closes per instrument, laid out bar by bar:
+     * {@code closes[bar * instruments() + k]}. NaN entries are skipped. Writes the RSI after
+     * the last bar into {@code rsiOut[k]}, NaN while an instrument is still seeding.
+     */
+    public void update(double[] closes, int bars, double[] rsiOut) {
+        if (closes.length < bars * instruments || rsiOut.length < instruments) {
+            throw new IllegalArgumentException("Expected " + bars * instruments + " closes and "
+                + instruments + " outputs, got " + closes.length + " and " + rsiOut.length);
+        }
+        int blocks = (instruments + BLOCK - 1) / BLOCK;
+        if (blocks <= 1) {
+            updateBlock(closes, bars, rsiOut, 0, instruments);
+        } else {
+            IntStream.range(0, blocks).parallel()
+                .forEach(b -> updateBlock(closes, bars, rsiOut, b * BLOCK, Math.min((b + 1) * BLOCK, instruments)));
+        }
+    }
+
+    /** Current RSI of one instrument, NaN while it is still seeding. */
+    public double rsi(int instrument) {
+        return barsSeen[instrument] > period ? WilderMath.rsi(avgGain[instrument], avgLoss[instrument]) : Double.NaN;
+    }
+
+    /** Forgets the state of one instrument, e.g. after a symbol change or a data gap. */
+    public void reset(int instrument) {
+        prevClose[instrument] = 0.0;
+        avgGain[instrument] = 0.0;
+        avgLoss[instrument] = 0.0;
+        barsSeen[instrument] = 0;
+    }
+
+    public void resetAll() {
+        Arrays.fill(prevClose, 0.0);
+        Arrays.fill(avgGain, 0.0);
+        Arrays.fill(avgLoss, 0.0);
+        Arrays.fill(barsSeen, 0);
+    }
+
+    private void updateBlock(double[] closes, int bars, double[] rsiOut, int from, int to) {
+        for (int bar = 0; bar < bars; bar++) {
+            int row = bar * instruments;
+            for (int k = from; k < to; k++) {
+                double close = closes[row + k];
+                if (close == close) { // Not NaN
+                    step(k, close);
+                }
+            }
+        }
+        for (int k = from; k < to; k++) {
+            rsiOut[k] = rsi(k);
+        }
+    }
+
+    private void step(int k, double close) {
+        int seen = barsSeen[k];
+        if (seen == 0) {
+            prevClose[k] = close;
+            barsSeen[k] = 1;
+            return;
+        }
+        double change = close - prevClose[k];
+        prevClose[k] = close;
+        double gain = change > 0 ? change : 0.0;
+        double loss = change < 0 ? -change : 0.0;
+
+        if (seen <= period) {
+            avgGain[k] += gain;
+            avgLoss[k] += loss;
+            barsSeen[k] = seen + 1;
+            if (seen < period) {
+                return;
+            }
+            avgGain[k] /= period;
+            avgLoss[k] /= period;
+        }
+        avgGain[k] = (avgGain[k] * smoothing + gain) / period;
+        avgLoss[k] = (avgLoss[k] * smoothing + loss) / period;
+    }
+}
@@ -0,0 +1,110 @@
+package com.EcoChartPro.plugins.community;
+
+/**
+ * Bounded ring of Wilder state checkpoints, one every {@code interval} closed bars.
+ * When a past bar is revised, {@link StatefulRsiIndicator#rewindTo} restores the newest
+ * checkpoint before it instead of reseeding from bar 0. Memory is fixed at construction:
+ * {@code capacity} entries of four longs and an int.
+ * Averages are stored as scaled longs, or as raw double bits in DOUBLE mode.
+ */
+final class CheckpointRing {
+
+    private final int interval;
+    private final long[] timestamps;
+    private final int[] indices;
+    private final long[] avgGains;
+    private final long[] avgLosses;
+
+    private int head; // Slot of the next write.
+    private int count;
+    private int barsSinceLast;
+
+    CheckpointRing(int capacity, int interval) {
+        this.interval = Math.max(interval, 1);
+        int slots = Math.max(capacity, 1);
+        this.timestamps = new long[slots];
+        this.indices = new int[slots];
+        this.avgGains = new long[slots];
+        this.avgLosses = new long[slots];
+    }
+
+    int capacity() {
+        return timestamps.length;
+    }
+
+    int interval() {
+        return interval;
+    }
+
+    int size() {
+        return count;
+    }
+
+    /** Called once per committed closed bar. Returns true when that bar should be recorded. */
+    boolean due() {
+        return ++barsSinceLast >= interval;
+    }
+
+    /** Counts {@code bars} committed bars that were not due, without checking each one. */
+    void advance(int bars) {
+        barsSinceLast += bars;
+    }
+
+    void record(long timestampMillis, int index, long avgGain, long avgLoss) {
+        timestamps[head] = timestampMillis;
+        indices[head] = index;
+        avgGains[head] = avgGain;
+        avgLosses[head] = avgLoss;
+        head = (head + 1) % timestamps.length;
+        if (count < timestamps.length) {
+            count++;
+        }
+        barsSinceLast = 0;
+    }
+
+    /**
+     * Drops every checkpoint at or after {@code timestampMillis} and returns the slot of the
+     * newest one left, or -1 if none precedes it.
+     */
+    int rewindBefore(long timestampMillis) {
+        while (count > 0) {
+            int newest = slot(count - 1);
+            if (timestamps[newest] < timestampMillis) {
+                barsSinceLast = 0;
+                return newest;
+            }
+            head = newest;
+            count--;
+        }
+        barsSinceLast = 0;
+        return -1;
+    }
+
+    long timestampAt(int slot) {
+        return timestamps[slot];
+    }
+
+    int indexAt(int slot) {
+        return indices[slot];
+    }
+
+    long avgGainAt(int slot) {
+        return avgGains[slot];
+    }
+
+    long avgLossAt(int slot) {
+        return avgLosses[slot];
+    }
+
+    void clear() {
+        head = 0;
+        count = 0;
+        barsSinceLast = 0;
+    }
+
+    /** Slot of the {@code n}-th oldest entry. */
+    private int slot(int n) {
+        int oldest = (head - count + timestamps.length) % timestamps.length;
+        return (oldest + n) % timestamps.length;
+    }
+}
@@ -0,0 +1,119 @@
+package com.EcoChartPro.plugins.community;
+
+import java.math.BigDecimal;
+
+/**
+ * Scaled-long arithmetic used by the fixed-point RSI engine.
+ * Every value is an unscaled long at {@link #SCALE} decimal digits, i.e. the same
+ * representation BigDecimal uses for the results of divide(..., 10, HALF_UP).
+ * All operations reproduce BigDecimal's HALF_UP rounding exactly for non-negative operands
+ * and never allocate. Operations that would overflow return {@link #OVERFLOW} so the caller
+ * can fall back to BigDecimal.
+ */
+final class FixedPointMath {
+
+    static final int SCALE = 10;
+    static final long ONE = 10_000_000_000L; // 1.0 at SCALE
+    static final long ONE_HUNDRED = 100 * ONE;
+
+    /** Sentinel returned when a value cannot be represented. Never a valid scaled value here. */
+    static final long OVERFLOW = Long.MIN_VALUE;
+
+    private static final long[] POWERS_OF_TEN = {
+        1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L,
+        1_000_000_000L, 10_000_000_000L, 100_000_000_000L, 1_000_000_000_000L,
+        10_000_000_000_000L, 100_000_000_000_000L, 1_000_000_000_000_000L,
+        10_000_000_000_000_000L, 100_000_000_000_000_000L, 1_000_000_000_000_000_000L
+    };
+
+    /** 10^n as doubles, exact for every n here. */
+    private static final double[] DOUBLE_POWERS_OF_TEN = new double[POWERS_OF_TEN.length];
+
+    static {
+        for (int n = 0; n < POWERS_OF_TEN.length; n++) {
+            DOUBLE_POWERS_OF_TEN[n] = POWERS_OF_TEN[n];
+        }
+    }
+
+    private FixedPointMath() {
+    }
+
+    /**
+     * Converts a price to an unscaled long at SCALE. Returns OVERFLOW if the value has more
+     * than SCALE fractional digits or does not fit in a long.
+     */
+    static long toScaled(BigDecimal value) {
+        int shift = SCALE - value.scale();
+        if (shift < 0 || shift >= POWERS_OF_TEN.length || value.precision() > 18) {
+            return value.signum() == 0 ? 0L : OVERFLOW;
+        }
+        long unscaled = unscaled(value);
+        long factor = POWERS_OF_TEN[shift];
+        long high = Math.multiplyHigh(unscaled, factor);
+        long scaled = unscaled * factor;
+        return high == (scaled >> 63) && scaled != OVERFLOW ? scaled : OVERFLOW;
+    }
+
+    /**
+     * The unscaled value of a BigDecimal of at most 18 digits. unscaledValue() allocates a
+     * BigInteger, so up to 15 digits it is recovered from doubleValue() instead: that is the
+     * correctly rounded quotient of two exact doubles, and multiplying back by 10^scale lands
+     * within 0.25 of the unscaled value, so rounding restores it exactly. For such compact
+     * values doubleValue() does not allocate.
+     */
+    private static long unscaled(BigDecimal value) {
+        int scale = value.scale();
+        if (value.precision() <= 15 && scale >= 0 && scale < DOUBLE_POWERS_OF_TEN.length) {
+            return Math.round(value.doubleValue() * DOUBLE_POWERS_OF_TEN[scale]);
+        }
+        return value.unscaledValue().longValue();
+    }
+
+    static BigDecimal toDecimal(long scaled) {
+        return BigDecimal.valueOf(scaled, SCALE);
+    }
+
+    /** {@code value * multiplier + addend}, or OVERFLOW. */
+    static long multiplyAdd(long value, long multiplier, long addend) {
+        long product = value * multiplier;
+        if (Math.multiplyHigh(value, multiplier) != (product >> 63)) {
+            return OVERFLOW;
+        }
+        long sum = product + addend;
+        if (((product ^ sum) & (addend ^ sum)) < 0 || sum == OVERFLOW) {
+            return OVERFLOW;
+        }
+        return sum;
+    }
+
+    /** Rounds {@code dividend / divisor} HALF_UP. Both operands must be non-negative. */
+    static long divideHalfUp(long dividend, long divisor) {
+        long quotient = dividend / divisor;
+        long remainder = dividend - quotient * divisor;
+        return remainder >= divisor - remainder ? quotient + 1 : quotient;
+    }
+
+    /**
+     * Divides two scaled values and rounds the quotient HALF_UP to SCALE, like
+     * {@code dividend.divide(divisor, SCALE, RoundingMode.HALF_UP)}. Both operands must be
+     * non-negative and the divisor positive. Uses schoolbook long division so the
+     * intermediate {@code dividend * 10^SCALE} never has to exist.
+     */
+    static long divideScaled(long dividend, long divisor) {
+        if (divisor > Long.MAX_VALUE / 10) {
+            return OVERFLOW;
+        }
+        long quotient = dividend / divisor;
+        if (quotient > Long.MAX_VALUE / ONE - 1) {
+            return OVERFLOW;
+        }
+        long remainder = dividend - quotient * divisor;
+        for (int digit = 0; digit < SCALE; digit++) {
+            remainder *= 10;
+            long next = remainder / divisor;
+            quotient = quotient * 10 + next;
+            remainder -= next * divisor;
+        }
+        return remainder >= divisor - remainder ? quotient + 1 : quotient;
+    }
+}
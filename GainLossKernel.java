@@ -0,0 +1,43 @@
+package com.EcoChartPro.plugins.community;
+
+/**
+ * Splits a close column into gain and loss columns: for every i in [from, to),
+ * gains[i] = max(closes[i] - closes[i - 1], 0) and losses[i] = max(closes[i - 1] - closes[i], 0).
+ * {@link #INSTANCE} is the Vector API implementation when its optional source set (vector/)
+ * was compiled, the JVM runs with {@code --add-modules jdk.incubator.vector}, and it is not
+ * disabled with {@code -Decochartpro.rsi.simd=false}; otherwise it is the scalar loop.
+ */
+interface GainLossKernel {
+
+    GainLossKernel INSTANCE = Loader.load();
+
+    void split(double[] closes, int from, int to, double[] gains, double[] losses);
+
+    /** Scalar implementation, also used for the tail the vector loop leaves over. */
+    static void splitScalar(double[] closes, int from, int to, double[] gains, double[] losses) {
+        for (int i = from; i < to; i++) {
+            double change = closes[i] - closes[i - 1];
+            gains[i] = change > 0 ? change : 0.0;
+            losses[i] = change < 0 ? -change : 0.0;
+        }
+    }
+
+    final class Loader {
+        private Loader() {
+        }
+
+        static GainLossKernel load() {
+            if (Boolean.parseBoolean(System.getProperty("ecochartpro.rsi.simd", "true"))) {
+                try {
+                    // Loaded by name: the core sources neither reference nor compile against it.
+                    return (GainLossKernel) Class.forName("com.EcoChartPro.plugins.community.VectorGainLossKernel")
+                        .getDeclaredConstructor()
+                        .newInstance();
+                } catch (ReflectiveOperationException | LinkageError e) {
+                    // Not compiled in, or jdk.incubator.vector not resolved: use the scalar loop.
+                }
+            }
+            return GainLossKernel::splitScalar;
+        }
+    }
+}
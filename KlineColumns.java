@@ -0,0 +1,124 @@
+package com.EcoChartPro.plugins.community;
+
+import com.EcoChartPro.api.indicator.ApiKLine;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Primitive column view of a kline history: closes as doubles, timestamps as epoch millis,
+ * and each bar's gain and loss against the previous close, split by {@link GainLossKernel}.
+ * Kept across calls and synced incrementally, so each bar's BigDecimal close is converted
+ * once instead of on every pass, and engines loop over plain arrays instead of calling
+ * through List and ApiKLine. The last bar is always re-read, since it may still be forming.
+ * Any component holding the same instance can share the extraction.
+ */
+final class KlineColumns {
+
+    private static final int INITIAL_CAPACITY = 256;
+
+    private long[] timestamps;
+    private double[] closes;
+    private double[] gains;
+    private double[] losses;
+    private int size;
+
+    KlineColumns() {
+        this(INITIAL_CAPACITY);
+    }
+
+    KlineColumns(int capacity) {
+        capacity = Math.max(capacity, 1);
+        timestamps = new long[capacity];
+        closes = new double[capacity];
+        gains = new double[capacity];
+        losses = new double[capacity];
+    }
+
+    /** Timestamps in epoch millis; valid up to the size of the last synced list. */
+    long[] timestamps() {
+        return timestamps;
+    }
+
+    /** Closes as doubles; valid up to the size of the last synced list. */
+    double[] closes() {
+        return closes;
+    }
+
+    /** max(close[i] - close[i - 1], 0); index 0 is always 0. */
+    double[] gains() {
+        return gains;
+    }
+
+    /** max(close[i - 1] - close[i], 0); index 0 is always 0. */
+    double[] losses() {
+        return losses;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Brings the columns in line with {@code klineData}. Bars already extracted are kept when
+     * the list only grew, or was trimmed at the front; anything else re-extracts from the
+     * first bar that cannot be matched by timestamp.
+     */
+    void sync(List<ApiKLine> klineData) {
+        int n = klineData.size();
+        if (size > 0 && n > 0) {
+            int offset = Arrays.binarySearch(timestamps, 0, size, millis(klineData, 0));
+            if (offset > 0) {
+                // Trimmed at the front: shift the surviving bars down.
+                System.arraycopy(timestamps, offset, timestamps, 0, size - offset);
+                System.arraycopy(closes, offset, closes, 0, size - offset);
+                System.arraycopy(gains, offset, gains, 0, size - offset);
+                System.arraycopy(losses, offset, losses, 0, size - offset);
+                gains[0] = 0.0;
+                losses[0] = 0.0;
+                size -= offset;
+            } else if (offset < 0) {
+                size = 0;
+            }
+        }
+
+        // Re-read the last cached bar, which may have been forming, and verify the one before.
+        int keep = Math.max(Math.min(size - 1, n - 1), 0);
+        if (keep > 0 && timestamps[keep - 1] != millis(klineData, keep - 1)) {
+            keep = 0;
+        }
+
+        ensureCapacity(n);
+        for (int i = keep; i < n; i++) {
+            ApiKLine kline = klineData.get(i);
+            timestamps[i] = kline.timestamp().toEpochMilli();
+            closes[i] = StatefulRsiIndicator.toDouble(kline.close());
+        }
+        if (keep == 0 && n > 0) {
+            gains[0] = 0.0;
+            losses[0] = 0.0;
+        }
+        GainLossKernel.INSTANCE.split(closes, Math.max(keep, 1), n, gains, losses);
+        size = n;
+    }
+
+    /** Forgets every bar at or after {@code timestampMillis}, e.g. because it was revised. */
+    void invalidateFrom(long timestampMillis) {
+        int index = Arrays.binarySearch(timestamps, 0, size, timestampMillis);
+        size = index >= 0 ? index : -index - 1;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > closes.length) {
+            int newCapacity = Math.max(capacity, closes.length + (closes.length >> 1));
+            timestamps = Arrays.copyOf(timestamps, newCapacity);
+            closes = Arrays.copyOf(closes, newCapacity);
+            gains = Arrays.copyOf(gains, newCapacity);
+            losses = Arrays.copyOf(losses, newCapacity);
+        }
+    }
+
+    private static long millis(List<ApiKLine> klineData, int index) {
+        return klineData.get(index).timestamp().toEpochMilli();
+    }
+}
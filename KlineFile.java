@@ -0,0 +1,304 @@
+package com.EcoChartPro.plugins.community;
+
+import com.EcoChartPro.api.indicator.ApiKLine;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Compact fixed-width kline file for offline replay, read through a read-only memory mapping.
+ * Layout, little-endian: a 32-byte header (magic "KLN1", format version, flags, price scale,
+ * volume scale, bar count), then one record per bar: epoch millis and the close as an unscaled
+ * long, followed by open, high, low and volume when the file has OHLCV. That is 16 or 48 bytes
+ * per bar, so one mapping holds about 130 or 44 million bars.
+ * <p>
+ * The primitive accessors read straight from the mapping and never allocate; {@link #close(int)}
+ * converts exactly as the engines convert BigDecimal closes, so replays through
+ * {@link RsiStream} match calculate() in Double mode. ApiKLine is a value record and cannot be
+ * a flyweight, so {@link #klines()} is a lazy view that builds a bar only when it is read; the
+ * engines read each new bar once, instead of the whole file being parsed up front.
+ * Files are written by {@link #convertCsv} or {@link #write}.
+ */
+public final class KlineFile implements Closeable {
+
+    private static final int MAGIC = 0x314E4C4B; // "KLN1"
+    private static final int FORMAT_VERSION = 1;
+    private static final int FLAG_OHLCV = 1;
+    private static final int HEADER = 32;
+
+    // --- Record layout ---
+    private static final int TIMESTAMP = 0;
+    private static final int CLOSE = 8;
+    private static final int OPEN = 16;
+    private static final int HIGH = 24;
+    private static final int LOW = 32;
+    private static final int VOLUME = 40;
+
+    /** 10^n as doubles, exact up to 10^22. */
+    private static final double[] POWERS_OF_TEN = new double[23];
+
+    static {
+        POWERS_OF_TEN[0] = 1.0;
+        for (int n = 1; n < POWERS_OF_TEN.length; n++) {
+            POWERS_OF_TEN[n] = POWERS_OF_TEN[n - 1] * 10.0;
+        }
+    }
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final boolean ohlcv;
+    private final int priceScale;
+    private final int volumeScale;
+    private final int recordBytes;
+    private final int size;
+
+    public KlineFile(Path file) throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            long fileBytes = channel.size();
+            if (fileBytes > Integer.MAX_VALUE) {
+                throw new IOException(file + " exceeds a single mapping");
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileBytes);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            if (fileBytes < HEADER || buffer.getInt(0) != MAGIC || buffer.getInt(4) != FORMAT_VERSION) {
+                throw new IOException(file + " is not a kline file");
+            }
+            ohlcv = (buffer.getInt(8) & FLAG_OHLCV) != 0;
+            priceScale = buffer.getInt(12);
+            volumeScale = buffer.getInt(16);
+            recordBytes = recordBytes(ohlcv);
+            long count = buffer.getLong(24);
+            if (count < 0 || HEADER + count * recordBytes > fileBytes) {
+                throw new IOException(file + " is truncated: header promises " + count + " bars");
+            }
+            size = (int) count;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /** Whether open, high, low and volume were stored; otherwise they read as the close and zero. */
+    public boolean hasOhlcv() {
+        return ohlcv;
+    }
+
+    public int priceScale() {
+        return priceScale;
+    }
+
+    public long timestampMillis(int index) {
+        return buffer.getLong(offset(index) + TIMESTAMP);
+    }
+
+    /** The close as an unscaled long; the price is this times 10^-{@link #priceScale()}. */
+    public long closeUnscaled(int index) {
+        return buffer.getLong(offset(index) + CLOSE);
+    }
+
+    /** The close as a double, equal to BigDecimal.doubleValue() of the exact close. */
+    public double close(int index) {
+        long unscaled = closeUnscaled(index);
+        if (priceScale >= 0 && priceScale < POWERS_OF_TEN.length && Math.abs(unscaled) < 1L << 52) {
+            // Both operands are exact doubles, so the division rounds once, as doubleValue() does.
+            return unscaled / POWERS_OF_TEN[priceScale];
+        }
+        return BigDecimal.valueOf(unscaled, priceScale).doubleValue();
+    }
+
+    /** Bar {@code index} as an ApiKLine, built on each call. */
+    public ApiKLine kline(int index) {
+        int offset = offset(index);
+        Instant timestamp = Instant.ofEpochMilli(buffer.getLong(offset + TIMESTAMP));
+        BigDecimal close = BigDecimal.valueOf(buffer.getLong(offset + CLOSE), priceScale);
+        if (!ohlcv) {
+            return new ApiKLine(timestamp, close, close, close, close, BigDecimal.ZERO);
+        }
+        return new ApiKLine(timestamp,
+            BigDecimal.valueOf(buffer.getLong(offset + OPEN), priceScale),
+            BigDecimal.valueOf(buffer.getLong(offset + HIGH), priceScale),
+            BigDecimal.valueOf(buffer.getLong(offset + LOW), priceScale),
+            close,
+            BigDecimal.valueOf(buffer.getLong(offset + VOLUME), volumeScale));
+    }
+
+    /** All bars as a random-access list that builds each ApiKLine only when it is read. */
+    public List<ApiKLine> klines() {
+        return new KlineView();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Converts a CSV of {@code timestamp,open,high,low,close[,volume]} lines into a kline file
+     * and returns the bar count. Timestamps are epoch millis or ISO-8601 instants and must not
+     * decrease; a header line is skipped. Prices must fit {@code priceScale} decimals exactly.
+     * With {@code ohlcv} false only timestamps and closes are kept.
+     */
+    public static int convertCsv(Path csv, Path target, int priceScale, int volumeScale, boolean ohlcv) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(csv, StandardCharsets.UTF_8);
+             Writer writer = new Writer(target, priceScale, volumeScale, ohlcv)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank() || (lineNumber == 1 && !Character.isDigit(line.strip().charAt(0)))) {
+                    continue;
+                }
+                String[] fields = line.split(",");
+                try {
+                    if (fields.length < 5) {
+                        throw new IllegalArgumentException("expected timestamp,open,high,low,close[,volume]");
+                    }
+                    String timestamp = fields[0].strip();
+                    long millis = timestamp.chars().allMatch(Character::isDigit)
+                        ? Long.parseLong(timestamp)
+                        : Instant.parse(timestamp).toEpochMilli();
+                    writer.append(millis, decimal(fields[1]), decimal(fields[2]), decimal(fields[3]), decimal(fields[4]),
+                        fields.length > 5 ? decimal(fields[5]) : BigDecimal.ZERO);
+                } catch (RuntimeException e) {
+                    throw new IOException(csv + " line " + lineNumber + ": " + e.getMessage(), e);
+                }
+            }
+            writer.finish();
+            return writer.count;
+        }
+    }
+
+    /** Writes {@code klines} as a kline file; prices must fit {@code priceScale} decimals exactly. */
+    public static void write(Path target, List<ApiKLine> klines, int priceScale, int volumeScale, boolean ohlcv) throws IOException {
+        try (Writer writer = new Writer(target, priceScale, volumeScale, ohlcv)) {
+            for (ApiKLine kline : klines) {
+                writer.append(kline.timestamp().toEpochMilli(), kline.open(), kline.high(), kline.low(), kline.close(), kline.volume());
+            }
+            writer.finish();
+        }
+    }
+
+    private int offset(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return HEADER + index * recordBytes;
+    }
+
+    private static int recordBytes(boolean ohlcv) {
+        return ohlcv ? VOLUME + 8 : CLOSE + 8;
+    }
+
+    private static BigDecimal decimal(String field) {
+        return new BigDecimal(field.strip());
+    }
+
+    private final class KlineView extends AbstractList<ApiKLine> implements RandomAccess {
+        @Override
+        public ApiKLine get(int index) {
+            return kline(index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    /**
+     * Streams records to a file through one reusable buffer. The header is written on close,
+     * and only after {@link #finish}, so a failed conversion leaves a file that does not open.
+     */
+    private static final class Writer implements Closeable {
+        private final FileChannel channel;
+        private final ByteBuffer records = ByteBuffer.allocateDirect(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+        private final int priceScale;
+        private final int volumeScale;
+        private final boolean ohlcv;
+        private int count;
+        private long lastMillis = Long.MIN_VALUE;
+        private boolean finished;
+
+        Writer(Path target, int priceScale, int volumeScale, boolean ohlcv) throws IOException {
+            this.channel = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            this.priceScale = priceScale;
+            this.volumeScale = volumeScale;
+            this.ohlcv = ohlcv;
+            channel.position(HEADER);
+        }
+
+        void append(long millis, BigDecimal open, BigDecimal high, BigDecimal low, BigDecimal close, BigDecimal volume) throws IOException {
+            if (millis < lastMillis) {
+                throw new IllegalArgumentException("timestamp " + millis + " before the previous bar");
+            }
+            if ((long) HEADER + (long) (count + 1) * recordBytes(ohlcv) > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("more bars than a single mapping holds");
+            }
+            lastMillis = millis;
+            if (records.remaining() < recordBytes(ohlcv)) {
+                flush();
+            }
+            records.putLong(millis);
+            records.putLong(unscaled(close, priceScale));
+            if (ohlcv) {
+                records.putLong(unscaled(open, priceScale));
+                records.putLong(unscaled(high, priceScale));
+                records.putLong(unscaled(low, priceScale));
+                records.putLong(unscaled(volume, volumeScale));
+            }
+            count++;
+        }
+
+        void finish() {
+            finished = true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                if (!finished) {
+                    return;
+                }
+                flush();
+                ByteBuffer header = ByteBuffer.allocate(HEADER).order(ByteOrder.LITTLE_ENDIAN);
+                header.putInt(MAGIC).putInt(FORMAT_VERSION).putInt(ohlcv ? FLAG_OHLCV : 0)
+                    .putInt(priceScale).putInt(volumeScale).putInt(0).putLong(count).flip();
+                channel.write(header, 0);
+            } finally {
+                channel.close();
+            }
+        }
+
+        private void flush() throws IOException {
+            records.flip();
+            while (records.hasRemaining()) {
+                channel.write(records);
+            }
+            records.clear();
+        }
+
+        /** Throws ArithmeticException if {@code value} has more decimals than {@code scale} or overflows a long. */
+        private static long unscaled(BigDecimal value, int scale) {
+            return value.setScale(scale).unscaledValue().longValueExact();
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.EcoChartPro.plugins.community;
+
+import com.EcoChartPro.api.indicator.Parameter;
+import com.EcoChartPro.api.indicator.ParameterType;
+
+import java.awt.Color;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The four numbered line slots of the multi-line RSI panes. Slot n has an integer setting
+ * "&lt;key&gt; n", where 0 disables the slot, and a "Color n" setting; only enabled slots
+ * are computed and drawn, in slot order.
+ */
+final class LineSlots {
+
+    static final int COUNT = 4;
+
+    private static final Color[] DEFAULT_COLORS = {
+        new Color(255, 152, 0), // Orange
+        new Color(33, 150, 243), // Blue
+        new Color(156, 39, 176), // Purple
+        new Color(76, 175, 80) // Green
+    };
+
+    private LineSlots() {
+    }
+
+    /** Adds the "Color n" parameters of every slot. */
+    static void addColorParameters(List<Parameter> parameters) {
+        for (int slot = 0; slot < COUNT; slot++) {
+            parameters.add(new Parameter("Color " + (slot + 1), ParameterType.COLOR, DEFAULT_COLORS[slot]));
+        }
+    }
+
+    /** Values of the enabled slots of setting {@code key}. */
+    static int[] enabledValues(Map<String, Object> settings, String key) {
+        int[] values = new int[COUNT];
+        int count = 0;
+        for (int slot = 0; slot < COUNT; slot++) {
+            int value = (Integer) settings.get(key + " " + (slot + 1));
+            if (value > 0) {
+                values[count++] = value;
+            }
+        }
+        return Arrays.copyOf(values, count);
+    }
+
+    /** Colors of the enabled slots of setting {@code key}, in the same order as {@link #enabledValues}. */
+    static Color[] enabledColors(Map<String, Object> settings, String key) {
+        Color[] colors = new Color[COUNT];
+        int count = 0;
+        for (int slot = 0; slot < COUNT; slot++) {
+            if ((Integer) settings.get(key + " " + (slot + 1)) > 0) {
+                colors[count++] = (Color) settings.get("Color " + (slot + 1));
+            }
+        }
+        return Arrays.copyOf(colors, count);
+    }
+}
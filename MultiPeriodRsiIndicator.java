@@ -0,0 +1,215 @@
+package com.EcoChartPro.plugins.community;
+
+import com.EcoChartPro.api.indicator.ApiKLine;
+import com.EcoChartPro.api.indicator.CustomIndicator;
+import com.EcoChartPro.api.indicator.IndicatorType;
+import com.EcoChartPro.api.indicator.Parameter;
+import com.EcoChartPro.api.indicator.ParameterType;
+import com.EcoChartPro.api.indicator.drawing.DataPoint;
+import com.EcoChartPro.api.indicator.drawing.DrawableObject;
+import com.EcoChartPro.api.indicator.drawing.DrawablePolyline;
+import com.EcoChartPro.core.indicator.IndicatorContext;
+
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Several RSI periods in one pane, computed in a single pass over the history.
+ * Each bar's close is extracted once into {@link KlineColumns} and its gain and loss derived
+ * once, then fed to one Wilder accumulator per period, so adding a period costs a few flops
+ * per bar rather than another full pass.
+ * Uses the same double arithmetic and forming-bar handling as {@link StatefulRsiIndicator}
+ * in DOUBLE mode, so each period differs from its BigDecimal output by at most
+ * {@link StatefulRsiIndicator#doubleTolerance}.
+ * A period of 0 disables that slot.
+ */
+public class MultiPeriodRsiIndicator implements CustomIndicator {
+
+    private static final String STATE_KEY = "multiPeriodRsiState";
+    private static final int[] DEFAULT_PERIODS = {2, 7, 14, 21};
+
+    /** Per-period Wilder states plus the shared band, stored under {@link #STATE_KEY}. */
+    static final class State {
+        final int[] periods;
+        final RsiState[] periodStates;
+        BandDrawables band = new BandDrawables();
+        KlineColumns columns = new KlineColumns();
+
+        State(int[] periods) {
+            this.periods = periods;
+            this.periodStates = new RsiState[periods.length];
+            for (int k = 0; k < periods.length; k++) {
+                periodStates[k] = new RsiState();
+                periodStates[k].period = periods[k];
+                periodStates[k].mode = StatefulRsiIndicator.NumericMode.DOUBLE;
+            }
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "Multi-Period RSI";
+    }
+
+    @Override
+    public IndicatorType getType() {
+        return IndicatorType.PANE;
+    }
+
+    @Override
+    public List<Parameter> getParameters() {
+        List<Parameter> parameters = new ArrayList<>();
+        for (int slot = 0; slot < LineSlots.COUNT; slot++) {
+            parameters.add(new Parameter("Period " + (slot + 1), ParameterType.INTEGER, DEFAULT_PERIODS[slot]));
+        }
+        parameters.add(new Parameter("Overbought", ParameterType.INTEGER, 70));
+        parameters.add(new Parameter("Oversold", ParameterType.INTEGER, 30));
+        LineSlots.addColorParameters(parameters);
+        parameters.add(new Parameter("Band Color", ParameterType.COLOR, new Color(128, 128, 128, 50))); // Semi-transparent gray
+        return parameters;
+    }
+
+    @Override
+    public void onSettingsChanged(Map<String, Object> newSettings, Map<String, Object> state) {
+        // Only the periods invalidate the Wilder states; levels and colors are picked up per call.
+        Object stored = state.get(STATE_KEY);
+        if (!(stored instanceof State) || !Arrays.equals(((State) stored).periods, LineSlots.enabledValues(newSettings, "Period"))) {
+            state.clear();
+        }
+    }
+
+    @Override
+    public List<DrawableObject> calculate(IndicatorContext context) {
+        Map<String, Object> settings = context.settings();
+        List<ApiKLine> klineData = context.klineData();
+        int[] periods = LineSlots.enabledValues(settings, "Period");
+        if (periods.length == 0) {
+            return Collections.emptyList();
+        }
+        int maxPeriod = Arrays.stream(periods).max().getAsInt();
+        if (klineData.size() <= maxPeriod) { // Seeding reads the changes of bars 1..period.
+            return Collections.emptyList();
+        }
+
+        Object stored = context.state().get(STATE_KEY);
+        boolean reset = context.isReset() || !(stored instanceof State) || !Arrays.equals(((State) stored).periods, periods)
+            || !((State) stored).periodStates[0].seeded
+            || StatefulRsiIndicator.timestampMillis(klineData, 0) < ((State) stored).periodStates[0].firstTimestampMillis;
+        State state;
+        if (reset) {
+            state = new State(periods);
+            if (stored instanceof State) {
+                // Neither the band nor the extracted columns depend on the periods.
+                state.band = ((State) stored).band;
+                state.columns = ((State) stored).columns;
+            }
+            state.periodStates[0].firstTimestampMillis = StatefulRsiIndicator.timestampMillis(klineData, 0);
+            context.state().put(STATE_KEY, state);
+        } else {
+            state = (State) stored;
+            long firstMillis = StatefulRsiIndicator.timestampMillis(klineData, 0);
+            if (firstMillis > state.periodStates[0].firstTimestampMillis) {
+                // Bars trimmed from the front take their points with them.
+                state.periodStates[0].firstTimestampMillis = firstMillis;
+                for (RsiState periodState : state.periodStates) {
+                    periodState.series.dropBefore(firstMillis);
+                }
+            }
+        }
+
+        List<List<DataPoint>> series = update(klineData, state, reset);
+        Color[] colors = LineSlots.enabledColors(settings, "Period");
+
+        // --- Prepare Drawable Objects ---
+        List<DrawableObject> drawables = new ArrayList<>();
+        for (int k = 0; k < periods.length; k++) {
+            if (!series.get(k).isEmpty()) {
+                drawables.add(new DrawablePolyline(series.get(k), colors[k], 2.0f));
+            }
+        }
+        drawables.addAll(state.band.get(klineData, settings));
+        return drawables;
+    }
+
+    /**
+     * The single pass. Bars before a period's seed window ends only feed its seed sums; the bar
+     * that ends the window is seeded and then smoothed, exactly as StatefulRsiIndicator does.
+     */
+    private static List<List<DataPoint>> update(List<ApiKLine> klineData, State state, boolean reset) {
+        int[] periods = state.periods;
+        int count = periods.length;
+        RsiState[] periodStates = state.periodStates;
+        double[] avgGain = new double[count];
+        double[] avgLoss = new double[count];
+        double[] smoothing = new double[count];
+        int maxPeriod = 0;
+        for (int k = 0; k < count; k++) {
+            avgGain[k] = periodStates[k].avgGain;
+            avgLoss[k] = periodStates[k].avgLoss;
+            smoothing[k] = periods[k] - 1;
+            maxPeriod = Math.max(maxPeriod, periods[k]);
+        }
+
+        int startIndex = reset
+            ? 1
+            : StatefulRsiIndicator.findResumeIndex(klineData, periodStates[0].lastTimestampMillis, periodStates[0].resumeIndex);
+        int formingIndex = klineData.size() - 1;
+        double[] committedGain = avgGain.clone();
+        double[] committedLoss = avgLoss.clone();
+        DataPoint[] forming = new DataPoint[count];
+
+        state.columns.sync(klineData);
+        double[] gains = state.columns.gains();
+        double[] losses = state.columns.losses();
+
+        // --- Core Calculation Loop ---
+        for (int i = startIndex; i < klineData.size(); i++) {
+            if (i == formingIndex) {
+                System.arraycopy(avgGain, 0, committedGain, 0, count);
+                System.arraycopy(avgLoss, 0, committedLoss, 0, count);
+            }
+            ApiKLine kline = klineData.get(i);
+            double gain = gains[i];
+            double loss = losses[i];
+
+            for (int k = 0; k < count; k++) {
+                int period = periods[k];
+                if (reset && i <= period) {
+                    avgGain[k] += gain;
+                    avgLoss[k] += loss;
+                    if (i < period) {
+                        continue;
+                    }
+                    avgGain[k] /= period;
+                    avgLoss[k] /= period;
+                }
+                avgGain[k] = (avgGain[k] * smoothing[k] + gain) / period;
+                avgLoss[k] = (avgLoss[k] * smoothing[k] + loss) / period;
+
+                double rsi = WilderMath.rsi(avgGain[k], avgLoss[k]);
+                if (i < formingIndex) {
+                    periodStates[k].series.append(kline.timestamp().toEpochMilli(), rsi);
+                } else {
+                    forming[k] = new DataPoint(kline.timestamp(), StatefulRsiIndicator.toDecimal(rsi));
+                }
+            }
+        }
+
+        boolean commit = StatefulRsiIndicator.canCommit(startIndex, formingIndex, maxPeriod, reset);
+        List<List<DataPoint>> series = new ArrayList<>(count);
+        for (int k = 0; k < count; k++) {
+            if (commit) {
+                periodStates[k].commitDouble(committedGain[k], committedLoss[k],
+                    StatefulRsiIndicator.timestampMillis(klineData, formingIndex - 1), formingIndex - 1);
+            } else if (reset) {
+                periodStates[k].invalidate();
+            }
+            series.add(periodStates[k].series.view(forming[k]));
+        }
+        return series;
+    }
+}
@@ -0,0 +1,225 @@
+package com.EcoChartPro.plugins.community;
+
+import com.EcoChartPro.api.indicator.ApiKLine;
+import com.EcoChartPro.api.indicator.CustomIndicator;
+import com.EcoChartPro.api.indicator.IndicatorType;
+import com.EcoChartPro.api.indicator.Parameter;
+import com.EcoChartPro.api.indicator.ParameterType;
+import com.EcoChartPro.api.indicator.drawing.DataPoint;
+import com.EcoChartPro.api.indicator.drawing.DrawableObject;
+import com.EcoChartPro.api.indicator.drawing.DrawablePolyline;
+import com.EcoChartPro.core.indicator.IndicatorContext;
+
+import java.awt.Color;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * RSI of several higher timeframes in one pane, derived from the chart's base bars in a
+ * single pass.
+ * Each "Timeframe" is a bar length in minutes. Base bars are bucketed by
+ * floor(timestamp / length), and the last close of a bucket is its higher-timeframe close.
+ * Each timeframe drives its own {@link RsiStream}, which advances when a bucket is left. The
+ * bucket holding the newest base bar is still forming, so its RSI is drawn provisionally with
+ * {@link RsiStream#onTick}, like the forming bar of {@link StatefulRsiIndicator}.
+ * Points are placed at the last base bar of each bucket. Uses the same double arithmetic and
+ * seeding as StatefulRsiIndicator in DOUBLE mode; a timeframe of 1 on 1-minute bars reproduces
+ * its output. A timeframe of 0 disables that slot.
+ */
+public class MultiTimeframeRsiIndicator implements CustomIndicator {
+
+    private static final String STATE_KEY = "multiTimeframeRsiState";
+    private static final long MINUTE_MILLIS = 60_000L;
+    private static final int[] DEFAULT_TIMEFRAMES = {1, 5, 15, 60};
+
+    /** Wilder state of one timeframe, including the bucket that is still being aggregated. */
+    static final class Frame {
+        final long lengthMillis;
+        /** Advanced by the close of every finished bucket. */
+        final RsiStream stream;
+        final RsiSeries series = new RsiSeries();
+
+        /** Bucket of the newest base bar seen, and that bar's close and time. */
+        long bucket = Long.MIN_VALUE;
+        double bucketClose;
+        Instant bucketTime;
+
+        Frame(long lengthMillis, int period) {
+            this.lengthMillis = lengthMillis;
+            this.stream = new RsiStream(period);
+        }
+    }
+
+    /** Per-timeframe states plus the shared band, stored under {@link #STATE_KEY}. */
+    static final class State {
+        final int period;
+        final int[] timeframes;
+        final Frame[] frames;
+        boolean seeded;
+        /** First bar of the history the buckets were built from; an earlier one forces a reset. */
+        long firstTimestampMillis;
+        long lastTimestampMillis;
+        int resumeIndex;
+        BandDrawables band = new BandDrawables();
+        KlineColumns columns = new KlineColumns();
+
+        State(int period, int[] timeframes) {
+            this.period = period;
+            this.timeframes = timeframes;
+            this.frames = new Frame[timeframes.length];
+            for (int k = 0; k < timeframes.length; k++) {
+                frames[k] = new Frame(timeframes[k] * MINUTE_MILLIS, period);
+            }
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "Multi-Timeframe RSI";
+    }
+
+    @Override
+    public IndicatorType getType() {
+        return IndicatorType.PANE;
+    }
+
+    @Override
+    public List<Parameter> getParameters() {
+        List<Parameter> parameters = new ArrayList<>();
+        parameters.add(new Parameter("Period", ParameterType.INTEGER, 14));
+        for (int slot = 0; slot < LineSlots.COUNT; slot++) {
+            parameters.add(new Parameter("Timeframe " + (slot + 1), ParameterType.INTEGER, DEFAULT_TIMEFRAMES[slot]));
+        }
+        parameters.add(new Parameter("Overbought", ParameterType.INTEGER, 70));
+        parameters.add(new Parameter("Oversold", ParameterType.INTEGER, 30));
+        LineSlots.addColorParameters(parameters);
+        parameters.add(new Parameter("Band Color", ParameterType.COLOR, new Color(128, 128, 128, 50))); // Semi-transparent gray
+        return parameters;
+    }
+
+    @Override
+    public void onSettingsChanged(Map<String, Object> newSettings, Map<String, Object> state) {
+        // Only the period and the timeframes invalidate the Wilder states; levels and colors are picked up per call.
+        Object stored = state.get(STATE_KEY);
+        if (!(stored instanceof State) || ((State) stored).period != (Integer) newSettings.get("Period")
+            || !Arrays.equals(((State) stored).timeframes, LineSlots.enabledValues(newSettings, "Timeframe"))) {
+            state.clear();
+        }
+    }
+
+    @Override
+    public List<DrawableObject> calculate(IndicatorContext context) {
+        Map<String, Object> settings = context.settings();
+        List<ApiKLine> klineData = context.klineData();
+        int period = (Integer) settings.get("Period");
+        int[] timeframes = LineSlots.enabledValues(settings, "Timeframe");
+        if (timeframes.length == 0 || period < 1 || klineData.size() < 2) {
+            return Collections.emptyList();
+        }
+
+        Object stored = context.state().get(STATE_KEY);
+        boolean reset = context.isReset() || !(stored instanceof State) || ((State) stored).period != period
+            || !Arrays.equals(((State) stored).timeframes, timeframes) || !((State) stored).seeded
+            || StatefulRsiIndicator.timestampMillis(klineData, 0) < ((State) stored).firstTimestampMillis;
+        State state;
+        if (reset) {
+            state = new State(period, timeframes);
+            if (stored instanceof State) {
+                // Neither the band nor the extracted columns depend on the timeframes.
+                state.band = ((State) stored).band;
+                state.columns = ((State) stored).columns;
+            }
+            state.firstTimestampMillis = StatefulRsiIndicator.timestampMillis(klineData, 0);
+            context.state().put(STATE_KEY, state);
+        } else {
+            state = (State) stored;
+            long firstMillis = StatefulRsiIndicator.timestampMillis(klineData, 0);
+            if (firstMillis > state.firstTimestampMillis) {
+                // Bars trimmed from the front take their points with them.
+                state.firstTimestampMillis = firstMillis;
+                for (Frame frame : state.frames) {
+                    frame.series.dropBefore(firstMillis);
+                }
+            }
+        }
+
+        List<List<DataPoint>> series = update(klineData, state, reset);
+        Color[] colors = LineSlots.enabledColors(settings, "Timeframe");
+
+        // --- Prepare Drawable Objects ---
+        List<DrawableObject> drawables = new ArrayList<>();
+        for (int k = 0; k < timeframes.length; k++) {
+            if (!series.get(k).isEmpty()) {
+                drawables.add(new DrawablePolyline(series.get(k), colors[k], 2.0f));
+            }
+        }
+        drawables.addAll(state.band.get(klineData, settings));
+        return drawables;
+    }
+
+    /**
+     * The single pass over the base bars. A bucket is finished by the first base bar of the
+     * next one, which is final even if that bar is still forming, since only its timestamp
+     * decides it. The forming bar itself only sets its bucket's provisional close, which the
+     * next call overwrites when it resumes at that bar; the whole state can therefore be kept.
+     */
+    private static List<List<DataPoint>> update(List<ApiKLine> klineData, State state, boolean reset) {
+        Frame[] frames = state.frames;
+        int formingIndex = klineData.size() - 1;
+        int startIndex = reset
+            ? 0
+            : StatefulRsiIndicator.findResumeIndex(klineData, state.lastTimestampMillis, state.resumeIndex);
+
+        state.columns.sync(klineData);
+        long[] timestamps = state.columns.timestamps();
+        double[] closes = state.columns.closes();
+
+        // --- Core Calculation Loop ---
+        for (int i = startIndex; i <= formingIndex; i++) {
+            long millis = timestamps[i];
+            double close = closes[i];
+            Instant time = klineData.get(i).timestamp();
+            for (Frame frame : frames) {
+                long bucket = Math.floorDiv(millis, frame.lengthMillis);
+                if (bucket != frame.bucket) {
+                    if (frame.bucket != Long.MIN_VALUE) {
+                        finishBucket(frame);
+                    }
+                    frame.bucket = bucket;
+                }
+                frame.bucketClose = close;
+                frame.bucketTime = time;
+            }
+        }
+        if (formingIndex > 0) {
+            state.lastTimestampMillis = timestamps[formingIndex - 1];
+            state.resumeIndex = formingIndex - 1;
+            state.seeded = true;
+        }
+
+        List<List<DataPoint>> series = new ArrayList<>(frames.length);
+        for (Frame frame : frames) {
+            series.add(frame.series.view(provisionalPoint(frame)));
+        }
+        return series;
+    }
+
+    /** Folds the finished bucket's close into the frame's Wilder state and records its point. */
+    private static void finishBucket(Frame frame) {
+        long millis = frame.bucketTime.toEpochMilli();
+        double rsi = frame.stream.onBar(millis, frame.bucketClose);
+        if (!Double.isNaN(rsi)) {
+            frame.series.append(millis, rsi);
+        }
+    }
+
+    /** Point of the forming bucket as if it closed now, or null if that would still be seeding. */
+    private static DataPoint provisionalPoint(Frame frame) {
+        double rsi = frame.stream.onTick(frame.bucketClose);
+        return Double.isNaN(rsi) ? null : new DataPoint(frame.bucketTime, StatefulRsiIndicator.toDecimal(rsi));
+    }
+}
@@ -0,0 +1,121 @@
+package com.EcoChartPro.plugins.community;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Parallel reseed of the DOUBLE engine for very long histories.
+ * Wilder smoothing is the first-order linear recurrence avg' = a * avg + b * x with
+ * a = (period - 1) / period and b = 1 / period, so applying a run of bars is an affine map
+ * v -> A * v + B, and affine maps compose associatively. The closed bars are split into
+ * chunks on the ForkJoin common pool; each chunk folds its bars into (A, B) for gains and for
+ * losses, a sequential scan over the few chunks yields every chunk's starting averages, and
+ * the chunks then fill in their RSI points in parallel.
+ * Floating-point reassociation makes the averages differ from the sequential loop by a few
+ * ulps, far below the gap between DOUBLE and BIG_DECIMAL that
+ * {@link StatefulRsiIndicator#doubleTolerance} describes.
+ */
+final class ParallelReseed {
+
+    /** Closed bars below which the sequential loop is faster than forking. */
+    static final int THRESHOLD = 1 << 18;
+    private static final int MIN_CHUNK = 1 << 14;
+
+    private ParallelReseed() {
+    }
+
+    static boolean worthwhile(int closedBars) {
+        return closedBars >= THRESHOLD && ForkJoinPool.getCommonPoolParallelism() > 1;
+    }
+
+    /**
+     * Smooths the closed bars {@code period .. formingIndex - 1}, reading the synced
+     * timestamp, gain and loss columns of {@link KlineColumns}, starting from the seeded
+     * averages, and appends their points and due checkpoints to the state exactly as the
+     * sequential loop would. Returns {avgGain, avgLoss} after the last closed bar.
+     */
+    static double[] run(long[] barTimestamps, double[] gains, double[] losses, int formingIndex, int period,
+                        double seedGain, double seedLoss, RsiState state) {
+        int from = period;
+        int to = formingIndex; // Exclusive: the forming bar is left to the caller.
+        int bars = to - from;
+        int chunkCount = Math.max(1, Math.min(ForkJoinPool.getCommonPoolParallelism() * 4, bars / MIN_CHUNK));
+        int chunkSize = (bars + chunkCount - 1) / chunkCount;
+        double decay = (period - 1) / (double) period;
+
+        // --- Pass 1: fold each chunk into its affine maps ---
+        // Gains and losses share A = decay^length; only B differs.
+        double[] chunkA = new double[chunkCount];
+        double[] gainB = new double[chunkCount];
+        double[] lossB = new double[chunkCount];
+        IntStream.range(0, chunkCount).parallel().forEach(c -> {
+            int start = from + c * chunkSize;
+            int end = Math.min(start + chunkSize, to);
+            double a = 1.0;
+            double gb = 0.0;
+            double lb = 0.0;
+            for (int i = start; i < end; i++) {
+                a *= decay;
+                gb = gb * decay + gains[i] / period;
+                lb = lb * decay + losses[i] / period;
+            }
+            chunkA[c] = a;
+            gainB[c] = gb;
+            lossB[c] = lb;
+        });
+
+        // --- Scan: starting averages of every chunk ---
+        double[] startGain = new double[chunkCount + 1];
+        double[] startLoss = new double[chunkCount + 1];
+        startGain[0] = seedGain;
+        startLoss[0] = seedLoss;
+        for (int c = 0; c < chunkCount; c++) {
+            startGain[c + 1] = chunkA[c] * startGain[c] + gainB[c];
+            startLoss[c + 1] = chunkA[c] * startLoss[c] + lossB[c];
+        }
+
+        // Checkpoints the sequential loop would still hold at the end: the ring is due on every
+        // interval-th closed bar after a reseed and keeps only the newest capacity entries.
+        CheckpointRing ring = state.checkpoints;
+        int interval = ring.interval();
+        int dueCount = bars / interval;
+        int keptCount = Math.min(dueCount, ring.capacity());
+        int firstKept = dueCount - keptCount + 1; // 1-based ordinal of the oldest kept checkpoint
+        double[] checkpointGain = new double[keptCount];
+        double[] checkpointLoss = new double[keptCount];
+
+        // --- Pass 2: fill in the points from each chunk's starting averages ---
+        long[] timestamps = new long[bars];
+        double[] values = new double[bars];
+        IntStream.range(0, chunkCount).parallel().forEach(c -> {
+            int start = from + c * chunkSize;
+            int end = Math.min(start + chunkSize, to);
+            double avgGain = startGain[c];
+            double avgLoss = startLoss[c];
+            for (int i = start; i < end; i++) {
+                avgGain = avgGain * decay + gains[i] / period;
+                avgLoss = avgLoss * decay + losses[i] / period;
+
+                int ordinal = i - from + 1;
+                if (ordinal % interval == 0 && ordinal / interval >= firstKept) {
+                    int slot = ordinal / interval - firstKept;
+                    checkpointGain[slot] = avgGain;
+                    checkpointLoss[slot] = avgLoss;
+                }
+
+                timestamps[i - from] = barTimestamps[i];
+                values[i - from] = WilderMath.rsi(avgGain, avgLoss);
+            }
+        });
+
+        state.series.appendAll(timestamps, values, bars);
+        for (int slot = 0; slot < keptCount; slot++) {
+            int index = from + (firstKept + slot) * interval - 1;
+            ring.record(barTimestamps[index], index,
+                Double.doubleToRawLongBits(checkpointGain[slot]), Double.doubleToRawLongBits(checkpointLoss[slot]));
+        }
+        ring.advance(bars - dueCount * interval);
+
+        return new double[] {startGain[chunkCount], startLoss[chunkCount]};
+    }
+}
@@ -0,0 +1,136 @@
+package com.EcoChartPro.plugins.community;
+
+import com.EcoChartPro.api.indicator.ApiKLine;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Allocation-free RSI engine for hosts that render from primitive arrays, such as tick charts
+ * that redraw many times a second.
+ * The same Double-mode calculation as {@link StatefulRsiIndicator}, but the output is written
+ * into a preallocated double[] aligned with klineData instead of DataPoints: values()[i] is
+ * the RSI of bar i, NaN before the first seeded bar, and the last value is provisional.
+ * Closes are extracted through {@link KlineColumns} and closed bars advanced through
+ * {@link RsiStream}, neither of which allocates per bar. Once the buffers have grown to the
+ * history's size, an update that appends or revises bars allocates nothing on the heap; only
+ * a reseed or buffer growth does. The allocation check of {@code tools/RsiChecks} enforces this.
+ * Not thread-safe.
+ */
+public final class PrimitiveRsiEngine {
+
+    private static final int INITIAL_CAPACITY = 256;
+
+    private final int period;
+    private final KlineColumns columns;
+    private final RsiState state = new RsiState();
+    private final RsiStream stream;
+    private double[] values;
+    private int size;
+
+    public PrimitiveRsiEngine(int period) {
+        this(period, INITIAL_CAPACITY);
+    }
+
+    /** {@code capacity} presizes the buffers, e.g. to the expected history length. */
+    public PrimitiveRsiEngine(int period, int capacity) {
+        if (period < 1) {
+            throw new IllegalArgumentException("period must be at least 1: " + period);
+        }
+        this.period = period;
+        this.columns = new KlineColumns(capacity);
+        state.period = period;
+        state.mode = StatefulRsiIndicator.NumericMode.DOUBLE;
+        this.stream = new RsiStream(state, false);
+        this.values = new double[Math.max(capacity, 1)];
+    }
+
+    public int period() {
+        return period;
+    }
+
+    /** RSI per bar, valid up to {@link #size()}; the buffer is reused across updates. */
+    public double[] values() {
+        return values;
+    }
+
+    /** Bar timestamps in epoch millis, valid up to {@link #size()}. */
+    public long[] timestamps() {
+        return columns.timestamps();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /** Forgets the Wilder state; the next update reseeds from bar 0. */
+    public void reset() {
+        state.invalidate();
+    }
+
+    /**
+     * Brings {@link #values()} up to date with {@code klineData} and returns the index of the
+     * first value that changed, so a renderer can redraw only from there.
+     */
+    public int update(List<ApiKLine> klineData) {
+        int n = klineData.size();
+        columns.sync(klineData);
+        ensureCapacity(n);
+        if (n <= period) { // Seeding reads the changes of bars 1..period.
+            Arrays.fill(values, 0, n, Double.NaN);
+            size = n;
+            state.invalidate();
+            return 0;
+        }
+
+        long[] timestamps = columns.timestamps();
+        double[] closes = columns.closes();
+        double[] gains = columns.gains();
+        double[] losses = columns.losses();
+        int formingIndex = n - 1;
+
+        int startIndex = 0;
+        int firstChanged = 0;
+        boolean resume = state.seeded;
+        if (resume) {
+            startIndex = StatefulRsiIndicator.findResumeIndex(klineData, state.lastTimestampMillis, state.resumeIndex);
+            int shift = state.resumeIndex + 1 - startIndex;
+            // Resumable only if the committed bar is still in the list, before the forming bar.
+            resume = startIndex <= formingIndex && timestamps[startIndex - 1] == state.lastTimestampMillis && shift >= 0;
+            if (resume && shift > 0) {
+                // Trimmed at the front: shift the values of the surviving bars down.
+                System.arraycopy(values, shift, values, 0, startIndex);
+            }
+            firstChanged = shift > 0 ? 0 : startIndex;
+        }
+        if (!resume) {
+            double gainSum = 0.0;
+            double lossSum = 0.0;
+            for (int i = 1; i <= period; i++) {
+                gainSum += gains[i];
+                lossSum += losses[i];
+            }
+            // Seeded but not committed until the stream advances the first closed bar.
+            state.avgGain = gainSum / period;
+            state.avgLoss = lossSum / period;
+            state.seeded = false;
+            Arrays.fill(values, 0, period, Double.NaN);
+            startIndex = period;
+            firstChanged = 0;
+        }
+
+        // --- Core Calculation Loop ---
+        for (int i = startIndex; i < formingIndex; i++) {
+            values[i] = stream.advance(timestamps[i], closes[i], gains[i], losses[i], i);
+        }
+        values[formingIndex] = stream.provisional(gains[formingIndex], losses[formingIndex]);
+        size = n;
+        return firstChanged;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > values.length) {
+            values = Arrays.copyOf(values, Math.max(capacity, values.length + (values.length >> 1)));
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.EcoChartPro.plugins.community;
+
+import com.EcoChartPro.api.indicator.drawing.DataPoint;
+import com.EcoChartPro.api.indicator.drawing.DrawableObject;
+
+import java.awt.Color;
+import java.util.List;
+
+/**
+ * Incremental output of {@link StatefulRsiIndicator#calculateDelta}.
+ * A host applies it by dropping its RSI points from index {@code replaceFrom} on and appending
+ * {@code points}. The forming bar's point is always resent, so {@code points} is never empty
+ * while there is enough history. The RSI line is always drawn with {@code lineColor} and
+ * {@code lineWidth}, which follow the settings on every delta, since a style change keeps the
+ * points. When {@code staticDrawablesUnchanged} is false, the band box and level lines must
+ * be replaced by {@code staticDrawables}; otherwise that list is empty.
+ */
+public record RsiDelta(int replaceFrom, List<DataPoint> points, Color lineColor, float lineWidth,
+                       boolean staticDrawablesUnchanged, List<DrawableObject> staticDrawables) {
+}
@@ -0,0 +1,136 @@
+package com.EcoChartPro.plugins.community;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Java Flight Recorder events of {@link StatefulRsiIndicator}, so indicator stalls can be lined
+ * up with GC pauses and safepoints in the same recording. All three are enabled by the default
+ * and profile settings of a recording. Events are only instantiated while their type is enabled:
+ * the calculation path is too large for escape analysis to remove them, so a disabled event
+ * costs one flag read and no allocation.
+ */
+final class RsiEvents {
+
+    private static final EventType RESEED = EventType.getEventType(Reseed.class);
+    private static final EventType SLOW_CALCULATION = EventType.getEventType(SlowCalculation.class);
+    private static final EventType STATE_INVALIDATED = EventType.getEventType(StateInvalidated.class);
+
+    private RsiEvents() {
+    }
+
+    /** A started reseed event, or null if the event is disabled. */
+    static Reseed beginReseed() {
+        if (!RESEED.isEnabled()) {
+            return null;
+        }
+        Reseed event = new Reseed();
+        event.begin();
+        return event;
+    }
+
+    /** A started slow-calculation event, or null if the event is disabled. */
+    static SlowCalculation beginSlowCalculation() {
+        if (!SLOW_CALCULATION.isEnabled()) {
+            return null;
+        }
+        SlowCalculation event = new SlowCalculation();
+        event.begin();
+        return event;
+    }
+
+    static void stateInvalidated(int oldPeriod, StatefulRsiIndicator.NumericMode oldMode, int newPeriod, StatefulRsiIndicator.NumericMode newMode) {
+        if (!STATE_INVALIDATED.isEnabled()) {
+            return;
+        }
+        StateInvalidated event = new StateInvalidated();
+        if (event.shouldCommit()) {
+            event.oldPeriod = oldPeriod;
+            event.newPeriod = newPeriod;
+            event.oldMode = oldMode == null ? null : oldMode.label();
+            event.newMode = newMode.label();
+            event.commit();
+        }
+    }
+
+    @Name("com.EcoChartPro.rsi.Reseed")
+    @Label("RSI Reseed")
+    @Category({"EcoChartPro", "RSI"})
+    @Description("Wilder state of an RSI pane seeded from the first bar and run over the whole history")
+    @StackTrace(false)
+    static final class Reseed extends Event {
+        @Label("Period")
+        int period;
+
+        @Label("Bars")
+        int bars;
+
+        @Label("Numeric Mode")
+        String mode;
+
+        void end(int period, int bars, StatefulRsiIndicator.NumericMode mode) {
+            end();
+            if (shouldCommit()) {
+                this.period = period;
+                this.bars = bars;
+                this.mode = mode.label();
+                commit();
+            }
+        }
+    }
+
+    @Name("com.EcoChartPro.rsi.SlowCalculation")
+    @Label("Slow RSI Calculation")
+    @Category({"EcoChartPro", "RSI"})
+    @Description("calculate() or calculateDelta() call of an RSI pane that took longer than the threshold")
+    @Threshold("10 ms")
+    static final class SlowCalculation extends Event {
+        @Label("Period")
+        int period;
+
+        @Label("Bars")
+        int bars;
+
+        @Label("Numeric Mode")
+        String mode;
+
+        @Label("Reseed")
+        boolean reseed;
+
+        void end(int period, int bars, StatefulRsiIndicator.NumericMode mode, boolean reseed) {
+            end();
+            if (shouldCommit()) {
+                this.period = period;
+                this.bars = bars;
+                this.mode = mode.label();
+                this.reseed = reseed;
+                commit();
+            }
+        }
+    }
+
+    @Name("com.EcoChartPro.rsi.StateInvalidated")
+    @Label("RSI State Invalidated")
+    @Category({"EcoChartPro", "RSI"})
+    @Description("Settings change that discarded the Wilder state, so the next call reseeds")
+    @StackTrace(false)
+    static final class StateInvalidated extends Event {
+        @Label("Old Period")
+        int oldPeriod;
+
+        @Label("New Period")
+        int newPeriod;
+
+        @Label("Old Numeric Mode")
+        String oldMode;
+
+        @Label("New Numeric Mode")
+        String newMode;
+    }
+}
@@ -0,0 +1,166 @@
+package com.EcoChartPro.plugins.community;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Process-wide counters of {@link StatefulRsiIndicator}: calls, bars processed, reseeds versus
+ * incremental resumes, and a latency histogram for each of the two paths, so a stalled pane
+ * can be attributed to the RSI or to the host.
+ * Counting takes no locks, only {@link LongAdder}s. The two System.nanoTime() reads around a
+ * calculation cost more than the rest of the instrumentation together, so every reseed is timed but
+ * only one in {@code -Decochartpro.rsi.metrics.sample} (default 8, rounded to a power of two)
+ * incremental calls is, drawn from each thread's own random generator so panes on different
+ * threads share no sampling state; the incremental histogram is therefore a sample, while the
+ * counters are exact. That keeps the average overhead per call well under 50 ns.
+ * Enabled unless {@code -Decochartpro.rsi.metrics=false}, in which case the instrumentation
+ * folds away entirely. Queried through {@link #global()} or over JMX as {@value #OBJECT_NAME};
+ * a reloaded plugin replaces the registration of the copy it was loaded over.
+ */
+public final class RsiMetrics implements RsiMetricsMXBean {
+
+    public static final String OBJECT_NAME = "com.EcoChartPro.plugins.community:type=RsiMetrics";
+
+    static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("ecochartpro.rsi.metrics", "true"));
+
+    private static final int SAMPLE_MASK =
+        Integer.highestOneBit(Math.max(Integer.getInteger("ecochartpro.rsi.metrics.sample", 8), 1)) - 1;
+
+    private static final RsiMetrics GLOBAL = register(new RsiMetrics());
+
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder resets = new LongAdder();
+    private final LongAdder barsProcessed = new LongAdder();
+    private final LatencyHistogram resetLatency = new LatencyHistogram();
+    private final LatencyHistogram incrementalLatency = new LatencyHistogram();
+
+    private RsiMetrics() {
+    }
+
+    public static RsiMetrics global() {
+        return GLOBAL;
+    }
+
+    /** Whether to time this incremental call; true with probability 1 / (SAMPLE_MASK + 1). */
+    boolean sampleIncremental() {
+        return (ThreadLocalRandom.current().nextInt() & SAMPLE_MASK) == 0;
+    }
+
+    /** Counts one calculation: whether it reseeded, and how many bars it ran. */
+    void count(boolean reset, int bars) {
+        calls.increment();
+        if (reset) {
+            resets.increment();
+        }
+        barsProcessed.add(bars);
+    }
+
+    /** Records the duration of a timed calculation. */
+    void time(boolean reset, long nanos) {
+        (reset ? resetLatency : incrementalLatency).record(nanos);
+    }
+
+    @Override
+    public long getCalls() {
+        return calls.sum();
+    }
+
+    @Override
+    public long getResets() {
+        return resets.sum();
+    }
+
+    @Override
+    public long getIncrementals() {
+        return getCalls() - getResets();
+    }
+
+    @Override
+    public long getBarsProcessed() {
+        return barsProcessed.sum();
+    }
+
+    @Override
+    public double getResetMeanNanos() {
+        return resetLatency.meanNanos();
+    }
+
+    @Override
+    public long getResetP50Nanos() {
+        return resetLatency.percentileNanos(50);
+    }
+
+    @Override
+    public long getResetP99Nanos() {
+        return resetLatency.percentileNanos(99);
+    }
+
+    @Override
+    public long getResetMaxNanos() {
+        return resetLatency.maxNanos();
+    }
+
+    @Override
+    public double getIncrementalMeanNanos() {
+        return incrementalLatency.meanNanos();
+    }
+
+    @Override
+    public long getIncrementalP50Nanos() {
+        return incrementalLatency.percentileNanos(50);
+    }
+
+    @Override
+    public long getIncrementalP99Nanos() {
+        return incrementalLatency.percentileNanos(99);
+    }
+
+    @Override
+    public long getIncrementalMaxNanos() {
+        return incrementalLatency.maxNanos();
+    }
+
+    /** Latency of reseeding calls at {@code percentile} (0 to 100), in nanoseconds. */
+    public long resetPercentileNanos(double percentile) {
+        return resetLatency.percentileNanos(percentile);
+    }
+
+    /** Latency of incremental calls at {@code percentile} (0 to 100), in nanoseconds. */
+    public long incrementalPercentileNanos(double percentile) {
+        return incrementalLatency.percentileNanos(percentile);
+    }
+
+    @Override
+    public void clear() {
+        calls.reset();
+        resets.reset();
+        barsProcessed.reset();
+        resetLatency.clear();
+        incrementalLatency.clear();
+    }
+
+    private static RsiMetrics register(RsiMetrics metrics) {
+        if (ENABLED) {
+            try {
+                MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+                ObjectName name = new ObjectName(OBJECT_NAME);
+                try {
+                    server.registerMBean(metrics, name);
+                } catch (InstanceAlreadyExistsException e) {
+                    // Left by an earlier load of the plugin. Keeping it would pin that class loader
+                    // and show its stale counters, so this copy takes the name over.
+                    server.unregisterMBean(name);
+                    server.registerMBean(metrics, name);
+                }
+            } catch (JMException | SecurityException e) {
+                // JMX is locked down, or another copy won a concurrent reload; metrics stay queryable in-process.
+            }
+        }
+        return metrics;
+    }
+}
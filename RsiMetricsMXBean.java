@@ -0,0 +1,36 @@
+package com.EcoChartPro.plugins.community;
+
+/**
+ * JMX view of {@link RsiMetrics}, registered as {@value RsiMetrics#OBJECT_NAME}.
+ * Latencies are in nanoseconds, wall-clock of the RSI calculation of each calculate() or
+ * calculateDelta() call, which excludes building the returned drawables.
+ */
+public interface RsiMetricsMXBean {
+
+    long getCalls();
+
+    long getResets();
+
+    long getIncrementals();
+
+    long getBarsProcessed();
+
+    double getResetMeanNanos();
+
+    long getResetP50Nanos();
+
+    long getResetP99Nanos();
+
+    long getResetMaxNanos();
+
+    double getIncrementalMeanNanos();
+
+    long getIncrementalP50Nanos();
+
+    long getIncrementalP99Nanos();
+
+    long getIncrementalMaxNanos();
+
+    /** Zeroes every counter and histogram. */
+    void clear();
+}
@@ -0,0 +1,219 @@
+package com.EcoChartPro.plugins.community;
+
+import com.EcoChartPro.api.indicator.ApiKLine;
+import com.EcoChartPro.api.indicator.drawing.DataPoint;
+
+import java.time.Instant;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Growable store of the committed RSI points of one pane, appended at the end and trimmed at
+ * the front when the host drops old bars.
+ * Points are kept as two primitive columns, epoch millis and RSI value, at 16 bytes per point
+ * instead of a DataPoint with its Instant and BigDecimal. A {@link #view} adapts them to the
+ * List&lt;DataPoint&gt; that DrawablePolyline takes, building each DataPoint when it is read
+ * and keeping none, so the renderer's points are garbage once drawn and the store stays at
+ * 16 bytes per point. Every RSI the engines produce is a decimal of at most
+ * CALCULATION_SCALE places in [0, 100], which a double holds closely enough for the view to
+ * restore it exactly; only its scale is normalized, with 100 always coming back as
+ * ONE_HUNDRED.
+ * The forming bar's point is not stored; it is attached to each view.
+ * Views are immutable snapshots: appends only write past every existing view's end, trimming
+ * the front only moves the start of the live range, and truncation copies the arrays, so a
+ * view the host still holds never changes.
+ */
+final class RsiSeries {
+
+    private static final int INITIAL_CAPACITY = 256;
+
+    private long[] timestamps = new long[INITIAL_CAPACITY];
+    private double[] values = new double[INITIAL_CAPACITY];
+    /** Array index of the first live point; the slots before it were trimmed. */
+    private int start;
+    private int size;
+    /** Points the host already holds: the size at the last delivery, lowered by truncation. */
+    private int deliveredSize;
+
+    int size() {
+        return size;
+    }
+
+    /** Array index of the first point in {@link #timestamps()} and {@link #values()}. */
+    int offset() {
+        return start;
+    }
+
+    /** Epoch millis of each point; valid from {@link #offset()} for {@link #size()} entries. */
+    long[] timestamps() {
+        return timestamps;
+    }
+
+    /** RSI of each point; valid from {@link #offset()} for {@link #size()} entries. */
+    double[] values() {
+        return values;
+    }
+
+    /** Epoch millis of the first point; the series must not be empty. */
+    long firstTimestamp() {
+        return timestamps[start];
+    }
+
+    /**
+     * Whether the points line up with consecutive bars of {@code klineData} ending at
+     * {@code lastIndex}, i.e. were computed on this history.
+     */
+    boolean endsAt(List<ApiKLine> klineData, int lastIndex) {
+        if (size > lastIndex + 1) {
+            return false;
+        }
+        for (int k = start + size - 1, i = lastIndex; k >= start; k--, i--) {
+            if (timestamps[k] != StatefulRsiIndicator.timestampMillis(klineData, i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    void append(long timestampMillis, double rsi) {
+        ensureRoom(1);
+        timestamps[start + size] = timestampMillis;
+        values[start + size] = rsi;
+        size++;
+    }
+
+    /** Appends the first {@code count} entries of the given arrays. */
+    void appendAll(long[] newTimestamps, double[] newValues, int count) {
+        ensureRoom(count);
+        System.arraycopy(newTimestamps, 0, timestamps, start + size, count);
+        System.arraycopy(newValues, 0, values, start + size, count);
+        size += count;
+    }
+
+    /**
+     * Inserts the points of {@code older}, which all precede this series, before its first
+     * point. Every index moves, so the arrays are copied and nothing counts as delivered.
+     */
+    void prepend(RsiSeries older) {
+        int count = older.size;
+        int capacity = Math.max(size + count, values.length);
+        long[] newTimestamps = new long[capacity];
+        double[] newValues = new double[capacity];
+        System.arraycopy(older.timestamps, older.start, newTimestamps, 0, count);
+        System.arraycopy(older.values, older.start, newValues, 0, count);
+        System.arraycopy(timestamps, start, newTimestamps, count, size);
+        System.arraycopy(values, start, newValues, count, size);
+        timestamps = newTimestamps;
+        values = newValues;
+        start = 0;
+        size += count;
+        deliveredSize = 0;
+    }
+
+    /**
+     * Drops every point before {@code timestampMillis}, e.g. because the host trimmed those bars.
+     * Every index moves, so nothing counts as delivered.
+     */
+    void dropBefore(long timestampMillis) {
+        int drop = 0;
+        while (drop < size && timestamps[start + drop] < timestampMillis) {
+            drop++;
+        }
+        if (drop > 0) {
+            // The slots stay allocated until the next growth compacts them away.
+            start += drop;
+            size -= drop;
+            deliveredSize = 0;
+        }
+    }
+
+    /** Drops every point after {@code timestampMillis}. */
+    void truncateAfter(long timestampMillis) {
+        int keep = size;
+        while (keep > 0 && timestamps[start + keep - 1] > timestampMillis) {
+            keep--;
+        }
+        if (keep < size) {
+            int capacity = Math.max(values.length - start, INITIAL_CAPACITY);
+            timestamps = Arrays.copyOfRange(timestamps, start, start + capacity);
+            values = Arrays.copyOfRange(values, start, start + capacity);
+            start = 0;
+            size = keep;
+            deliveredSize = Math.min(deliveredSize, keep);
+        }
+    }
+
+    void clear() {
+        // Fresh arrays: views handed out earlier keep the old ones.
+        timestamps = new long[INITIAL_CAPACITY];
+        values = new double[INITIAL_CAPACITY];
+        start = 0;
+        size = 0;
+        deliveredSize = 0;
+    }
+
+    /** Index of the first point the host does not hold yet, or holds a stale version of. */
+    int firstUndelivered() {
+        return deliveredSize;
+    }
+
+    void markDelivered() {
+        deliveredSize = size;
+    }
+
+    void markUndelivered() {
+        deliveredSize = 0;
+    }
+
+    /** The committed points followed by {@code forming}, if not null. */
+    List<DataPoint> view(DataPoint forming) {
+        return new View(timestamps, values, start, size, forming);
+    }
+
+    /**
+     * Makes room for {@code count} more points after the live range. New arrays are sized from
+     * the live points alone, so the slots of trimmed points are reclaimed here.
+     */
+    private void ensureRoom(int count) {
+        if (start + size + count > values.length) {
+            int capacity = Math.max(size + count, Math.max(size + (size >> 1), INITIAL_CAPACITY));
+            timestamps = Arrays.copyOfRange(timestamps, start, start + capacity);
+            values = Arrays.copyOfRange(values, start, start + capacity);
+            start = 0;
+        }
+    }
+
+    private static final class View extends AbstractList<DataPoint> implements RandomAccess {
+        private final long[] timestamps;
+        private final double[] values;
+        private final int start;
+        private final int committed;
+        private final DataPoint forming;
+
+        View(long[] timestamps, double[] values, int start, int committed, DataPoint forming) {
+            this.timestamps = timestamps;
+            this.values = values;
+            this.start = start;
+            this.committed = committed;
+            this.forming = forming;
+        }
+
+        @Override
+        public DataPoint get(int index) {
+            if (index < 0 || index >= size()) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+            }
+            if (index == committed) {
+                return forming;
+            }
+            return new DataPoint(Instant.ofEpochMilli(timestamps[start + index]), StatefulRsiIndicator.toDecimal(values[start + index]));
+        }
+
+        @Override
+        public int size() {
+            return forming == null ? committed : committed + 1;
+        }
+    }
+}
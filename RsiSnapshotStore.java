@@ -0,0 +1,320 @@
+package com.EcoChartPro.plugins.community;
+
+import com.EcoChartPro.api.indicator.ApiKLine;
+import com.EcoChartPro.core.indicator.IndicatorContext;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32C;
+
+/**
+ * Memory-mapped file of {@link StatefulRsiIndicator} state snapshots, so a restarted host can
+ * resume every chart instead of reseeding its whole history.
+ * A snapshot holds the committed averages, the last timestamp, the period and numeric mode,
+ * the close of the last committed bar, and the newest {@code tailCapacity} points of the
+ * series. It is keyed by instrument and a hash of the settings the Wilder state depends on
+ * (Period and Numeric Mode), so every pane configuration of an instrument has its own slot.
+ * <p>
+ * Call {@link #save} with the context just passed to calculate(), e.g. when a bar closes or at
+ * shutdown; writes go to the page cache and cost a few microseconds. On a cold start, call
+ * {@link #restore} on the empty state map before the first calculate(). That call checks the
+ * snapshot against its klineData and resumes from it despite isReset(), or reseeds if the
+ * history no longer matches. The first call after a restore draws only the saved tail; each
+ * following call reseeds up to 100,000 older bars on the side, and once that reaches the tail
+ * its points are spliced in front, so the full series is back within a few calls.
+ * <p>
+ * Each slot is written inside an odd sequence number and carries a CRC32C, so a snapshot torn
+ * by a crash mid-save is ignored. The file is a cache: if it has a different layout, it is
+ * recreated empty. Slots are never freed; {@link #clear} empties the whole store.
+ */
+public final class RsiSnapshotStore implements Closeable {
+
+    public static final int DEFAULT_SLOTS = 1024;
+    public static final int DEFAULT_TAIL_CAPACITY = 1024;
+    /** Longest instrument name, in UTF-8 bytes. */
+    public static final int MAX_INSTRUMENT_BYTES = 128;
+
+    private static final int MAGIC = 0x52534931; // "RSI1"
+    private static final int FORMAT_VERSION = 2;
+    private static final int FILE_HEADER = 64;
+
+    // --- Slot layout: fixed fields, then the tail as a column of longs and one of doubles ---
+    private static final int SEQUENCE = 0;
+    private static final int CRC = 8;
+    private static final int SETTINGS_HASH = 16;
+    private static final int PERIOD = 20;
+    private static final int USED = 24;
+    private static final int MODE = 25; // NumericMode code, see modeCode
+    private static final int FIXED_POINT_FALLBACK = 26;
+    private static final int INSTRUMENT_LENGTH = 27;
+    private static final int TAIL_SIZE = 28;
+    private static final int LAST_TIMESTAMP = 32;
+    private static final int RESUME_INDEX = 40;
+    private static final int AVG_GAIN_SCALED = 48;
+    private static final int AVG_LOSS_SCALED = 56;
+    private static final int AVG_GAIN = 64;
+    private static final int AVG_LOSS = 72;
+    private static final int LAST_CLOSE = 80;
+    private static final int INSTRUMENT = 88;
+    private static final int SLOT_HEADER = INSTRUMENT + MAX_INSTRUMENT_BYTES;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int slots;
+    private final int tailCapacity;
+    private final int slotBytes;
+    private final CRC32C crc = new CRC32C();
+
+    public RsiSnapshotStore(Path file) throws IOException {
+        this(file, DEFAULT_SLOTS, DEFAULT_TAIL_CAPACITY);
+    }
+
+    public RsiSnapshotStore(Path file, int slots, int tailCapacity) throws IOException {
+        if (slots < 1 || tailCapacity < 1) {
+            throw new IllegalArgumentException("slots and tailCapacity must be positive");
+        }
+        long slotBytes = SLOT_HEADER + 16L * tailCapacity;
+        long fileBytes = FILE_HEADER + slotBytes * slots;
+        if (fileBytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Store of " + fileBytes + " bytes exceeds a single mapping");
+        }
+        this.slots = slots;
+        this.tailCapacity = tailCapacity;
+        this.slotBytes = (int) slotBytes;
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            boolean compatible = channel.size() == fileBytes;
+            this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, fileBytes);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            compatible = compatible && buffer.getInt(0) == MAGIC && buffer.getInt(4) == FORMAT_VERSION
+                && buffer.getInt(8) == slots && buffer.getInt(12) == tailCapacity;
+            if (!compatible) {
+                clear();
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Writes the committed state of the pane calculated with {@code context}. Returns false if
+     * there is nothing to save (no seeded state, or one not built for the context's settings)
+     * or every slot is taken by other keys.
+     */
+    public synchronized boolean save(String instrument, IndicatorContext context) {
+        Object stored = context.state().get(RsiState.KEY);
+        if (!(stored instanceof RsiState)) {
+            return false;
+        }
+        RsiState state = (RsiState) stored;
+        int period = (Integer) context.settings().get("Period");
+        StatefulRsiIndicator.NumericMode mode = StatefulRsiIndicator.NumericMode.fromSetting(context.settings().get("Numeric Mode"));
+        if (!state.seeded || state.restored || state.period != period || state.requestedMode() != mode) {
+            return false;
+        }
+        byte[] key = key(instrument);
+        int hash = settingsHash(period, mode);
+        int slot = findSlot(key, hash, true);
+        if (slot < 0) {
+            return false;
+        }
+        List<ApiKLine> klineData = context.klineData();
+        int last = StatefulRsiIndicator.findResumeIndex(klineData, state.lastTimestampMillis, state.resumeIndex) - 1;
+        double lastClose = last >= 0 && StatefulRsiIndicator.timestampMillis(klineData, last) == state.lastTimestampMillis
+            ? StatefulRsiIndicator.toDouble(klineData.get(last).close())
+            : Double.NaN; // Not in this history; the restore then checks timestamps only.
+        int tailSize = Math.min(state.series.size(), tailCapacity);
+        int tailFrom = state.series.size() - tailSize;
+
+        int base = offset(slot);
+        long sequence = buffer.getLong(base + SEQUENCE) | 1;
+        buffer.putLong(base + SEQUENCE, sequence);
+        VarHandle.storeStoreFence();
+        buffer.putInt(base + SETTINGS_HASH, hash);
+        buffer.putInt(base + PERIOD, state.period);
+        buffer.put(base + USED, (byte) 1);
+        buffer.put(base + MODE, modeCode(state.mode));
+        buffer.put(base + FIXED_POINT_FALLBACK, (byte) (state.fixedPointFallback ? 1 : 0));
+        buffer.put(base + INSTRUMENT_LENGTH, (byte) key.length);
+        buffer.putInt(base + TAIL_SIZE, tailSize);
+        buffer.putLong(base + LAST_TIMESTAMP, state.lastTimestampMillis);
+        buffer.putInt(base + RESUME_INDEX, state.resumeIndex);
+        buffer.putLong(base + AVG_GAIN_SCALED, state.avgGainScaled);
+        buffer.putLong(base + AVG_LOSS_SCALED, state.avgLossScaled);
+        buffer.putDouble(base + AVG_GAIN, state.avgGain);
+        buffer.putDouble(base + AVG_LOSS, state.avgLoss);
+        buffer.putDouble(base + LAST_CLOSE, lastClose);
+        buffer.put(base + INSTRUMENT, key);
+        tailTimestamps(base).put(state.series.timestamps(), state.series.offset() + tailFrom, tailSize);
+        tailValues(base).put(state.series.values(), state.series.offset() + tailFrom, tailSize);
+        buffer.putInt(base + CRC, checksum(base, tailSize));
+        VarHandle.storeStoreFence();
+        buffer.putLong(base + SEQUENCE, sequence + 1);
+        return true;
+    }
+
+    /**
+     * Loads the snapshot for {@code instrument} and {@code settings} into {@code state}, to be
+     * confirmed against klineData by the next calculate(). Returns false, leaving the map
+     * untouched, if there is no intact snapshot for that key.
+     */
+    public synchronized boolean restore(String instrument, Map<String, Object> settings, Map<String, Object> state) {
+        int period = (Integer) settings.get("Period");
+        StatefulRsiIndicator.NumericMode mode = StatefulRsiIndicator.NumericMode.fromSetting(settings.get("Numeric Mode"));
+        int slot = findSlot(key(instrument), settingsHash(period, mode), false);
+        if (slot < 0) {
+            return false;
+        }
+        int base = offset(slot);
+        int tailSize = buffer.getInt(base + TAIL_SIZE);
+        StatefulRsiIndicator.NumericMode storedMode = modeOf(buffer.get(base + MODE));
+        if ((buffer.getLong(base + SEQUENCE) & 1) != 0 // Torn by a crash mid-save.
+            || tailSize < 0 || tailSize > tailCapacity
+            || storedMode == null
+            || buffer.getInt(base + CRC) != checksum(base, tailSize)) {
+            return false;
+        }
+
+        RsiState restored = new RsiState();
+        restored.period = buffer.getInt(base + PERIOD);
+        restored.mode = storedMode;
+        restored.fixedPointFallback = buffer.get(base + FIXED_POINT_FALLBACK) != 0;
+        if (restored.period != period || restored.requestedMode() != mode) {
+            return false;
+        }
+        restored.lastTimestampMillis = buffer.getLong(base + LAST_TIMESTAMP);
+        restored.resumeIndex = buffer.getInt(base + RESUME_INDEX);
+        restored.avgGainScaled = buffer.getLong(base + AVG_GAIN_SCALED);
+        restored.avgLossScaled = buffer.getLong(base + AVG_LOSS_SCALED);
+        restored.avgGain = buffer.getDouble(base + AVG_GAIN);
+        restored.avgLoss = buffer.getDouble(base + AVG_LOSS);
+        restored.lastClose = buffer.getDouble(base + LAST_CLOSE);
+        long[] timestamps = new long[tailSize];
+        double[] values = new double[tailSize];
+        tailTimestamps(base).get(timestamps);
+        tailValues(base).get(values);
+        restored.series.appendAll(timestamps, values, tailSize);
+        restored.seeded = true;
+        restored.restored = true;
+        state.put(RsiState.KEY, restored);
+        return true;
+    }
+
+    /** Drops every snapshot. */
+    public synchronized void clear() {
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(4, FORMAT_VERSION);
+        buffer.putInt(8, slots);
+        buffer.putInt(12, tailCapacity);
+        for (int slot = 0; slot < slots; slot++) {
+            buffer.put(offset(slot) + USED, (byte) 0);
+        }
+    }
+
+    /** Flushes the mapping to disk and closes the file. */
+    @Override
+    public synchronized void close() throws IOException {
+        buffer.force();
+        channel.close();
+    }
+
+    /**
+     * Linear probe for the slot of a key. Returns the first free slot if the key has none and
+     * {@code claim} is set, otherwise -1.
+     */
+    private int findSlot(byte[] key, int hash, boolean claim) {
+        int start = Math.floorMod(31 * Arrays.hashCode(key) + hash, slots);
+        for (int probe = 0; probe < slots; probe++) {
+            int slot = (start + probe) % slots;
+            int base = offset(slot);
+            if (buffer.get(base + USED) == 0) {
+                return claim ? slot : -1;
+            }
+            if (buffer.getInt(base + SETTINGS_HASH) == hash && hasKey(base, key)) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    private boolean hasKey(int base, byte[] key) {
+        if ((buffer.get(base + INSTRUMENT_LENGTH) & 0xFF) != key.length) {
+            return false;
+        }
+        byte[] stored = new byte[key.length];
+        buffer.get(base + INSTRUMENT, stored);
+        return Arrays.equals(stored, key);
+    }
+
+    /** CRC32C of everything in the slot after the checksum itself, up to the used tail. */
+    private int checksum(int base, int tailSize) {
+        crc.reset();
+        crc.update(buffer.slice(base + SETTINGS_HASH, SLOT_HEADER - SETTINGS_HASH));
+        crc.update(buffer.slice(base + SLOT_HEADER, 8 * tailSize));
+        crc.update(buffer.slice(base + SLOT_HEADER + 8 * tailCapacity, 8 * tailSize));
+        return (int) crc.getValue();
+    }
+
+    private LongBuffer tailTimestamps(int base) {
+        return buffer.slice(base + SLOT_HEADER, 8 * tailCapacity).order(ByteOrder.LITTLE_ENDIAN).asLongBuffer();
+    }
+
+    private DoubleBuffer tailValues(int base) {
+        return buffer.slice(base + SLOT_HEADER + 8 * tailCapacity, 8 * tailCapacity).order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer();
+    }
+
+    private int offset(int slot) {
+        return FILE_HEADER + slot * slotBytes;
+    }
+
+    /** Stable one-byte code of a mode, independent of the enum's declaration order. */
+    private static byte modeCode(StatefulRsiIndicator.NumericMode mode) {
+        switch (mode) {
+            case DOUBLE:
+                return 'D';
+            case FIXED_POINT:
+                return 'F';
+            default:
+                return 'B';
+        }
+    }
+
+    /** The mode of a {@link #modeCode}, or null if the byte is no known code. */
+    private static StatefulRsiIndicator.NumericMode modeOf(byte code) {
+        switch (code) {
+            case 'B':
+                return StatefulRsiIndicator.NumericMode.BIG_DECIMAL;
+            case 'D':
+                return StatefulRsiIndicator.NumericMode.DOUBLE;
+            case 'F':
+                return StatefulRsiIndicator.NumericMode.FIXED_POINT;
+            default:
+                return null;
+        }
+    }
+
+    private static int settingsHash(int period, StatefulRsiIndicator.NumericMode mode) {
+        return 31 * period + mode.label().hashCode();
+    }
+
+    private static byte[] key(String instrument) {
+        byte[] key = instrument.getBytes(StandardCharsets.UTF_8);
+        if (key.length > MAX_INSTRUMENT_BYTES) {
+            throw new IllegalArgumentException("Instrument name longer than " + MAX_INSTRUMENT_BYTES + " bytes: " + instrument);
+        }
+        return key;
+    }
+}
@@ -0,0 +1,164 @@
+package com.EcoChartPro.plugins.community;
+
+import com.EcoChartPro.api.indicator.ApiKLine;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Mutable Wilder state of one {@link StatefulRsiIndicator} pane.
+ * A single instance lives in the host's state map under {@link #KEY} and is updated in place
+ * by every calculate() call, so resuming costs one map lookup and no boxing.
+ * BIG_DECIMAL and FIXED_POINT keep their averages as longs scaled by 10^CALCULATION_SCALE,
+ * which is exactly the unscaled value of the BigDecimal the divides produce. DOUBLE keeps
+ * them as doubles.
+ */
+final class RsiState {
+
+    static final String KEY = "rsiState";
+    /** Checkpoints kept per pane, {@code -Decochartpro.rsi.checkpoint.count} (default 32). */
+    static final int CHECKPOINT_COUNT = Math.max(Integer.getInteger("ecochartpro.rsi.checkpoint.count", 32), 1);
+    /** Closed bars between checkpoints, {@code -Decochartpro.rsi.checkpoint.interval} (default 1000). */
+    static final int CHECKPOINT_INTERVAL = Math.max(Integer.getInteger("ecochartpro.rsi.checkpoint.interval", 1000), 1);
+
+    int period;
+    StatefulRsiIndicator.NumericMode mode;
+    boolean seeded;
+    /** FIXED_POINT was requested but the data needed BigDecimal; resume with BIG_DECIMAL. */
+    boolean fixedPointFallback;
+
+    /**
+     * Epoch millis of the first bar of the history the state was seeded from. A history that
+     * starts earlier had bars prepended that were never seen, so the next call reseeds.
+     */
+    long firstTimestampMillis = Long.MIN_VALUE;
+    long lastTimestampMillis;
+    /** Index in klineData of the bar at lastTimestampMillis when the state was committed. */
+    int resumeIndex;
+
+    long avgGainScaled;
+    long avgLossScaled;
+    double avgGain;
+    double avgLoss;
+    /** DOUBLE only: close of the bar at lastTimestampMillis, for {@link RsiStream}; NaN if unknown. */
+    double lastClose = Double.NaN;
+    /**
+     * Loaded by {@link RsiSnapshotStore#restore} and not yet checked against a history; the
+     * next calculate() confirms it and resumes, or reseeds. The snapshot's close of the bar at
+     * lastTimestampMillis is then held in lastClose, whatever the mode.
+     */
+    boolean restored;
+    /**
+     * After a confirmed restore: the reseed from bar 0 that rebuilds the points before the
+     * restored tail, advanced by each calculate() call until it reaches the tail; else null.
+     */
+    RsiState backfill;
+
+    CheckpointRing checkpoints = new CheckpointRing(CHECKPOINT_COUNT, CHECKPOINT_INTERVAL);
+    /** Points of every committed bar, kept in step with the averages. */
+    RsiSeries series = new RsiSeries();
+
+    BandDrawables band = new BandDrawables();
+    /** Primitive closes and timestamps of the history, extracted incrementally. Not copied. */
+    KlineColumns columns = new KlineColumns();
+
+    /** Returns the state stored in the host's map, creating and storing an empty one if needed. */
+    static RsiState from(Map<String, Object> state) {
+        Object existing = state.get(KEY);
+        if (existing instanceof RsiState) {
+            return (RsiState) existing;
+        }
+        RsiState created = new RsiState();
+        state.put(KEY, created);
+        return created;
+    }
+
+    void commitScaled(long avgGainScaled, long avgLossScaled, long lastTimestampMillis, int resumeIndex) {
+        this.avgGainScaled = avgGainScaled;
+        this.avgLossScaled = avgLossScaled;
+        commit(lastTimestampMillis, resumeIndex);
+    }
+
+    void commitDouble(double avgGain, double avgLoss, long lastTimestampMillis, int resumeIndex) {
+        this.avgGain = avgGain;
+        this.avgLoss = avgLoss;
+        commit(lastTimestampMillis, resumeIndex);
+    }
+
+    private void commit(long lastTimestampMillis, int resumeIndex) {
+        this.lastTimestampMillis = lastTimestampMillis;
+        this.resumeIndex = resumeIndex;
+        this.seeded = true;
+    }
+
+    /**
+     * Rolls the committed state back to the newest checkpoint before {@code revisedMillis}.
+     * Returns false if there is none; the state is then invalidated and the next call reseeds.
+     */
+    boolean rewindTo(long revisedMillis) {
+        columns.invalidateFrom(revisedMillis);
+        if (!seeded) {
+            return false;
+        }
+        if (revisedMillis > lastTimestampMillis) {
+            return true; // Only uncommitted bars changed.
+        }
+        int slot = checkpoints.rewindBefore(revisedMillis);
+        if (slot < 0) {
+            invalidate();
+            return false;
+        }
+        if (mode == StatefulRsiIndicator.NumericMode.DOUBLE) {
+            avgGain = Double.longBitsToDouble(checkpoints.avgGainAt(slot));
+            avgLoss = Double.longBitsToDouble(checkpoints.avgLossAt(slot));
+            lastClose = Double.NaN; // Not checkpointed; the next calculate() restores it.
+        } else {
+            avgGainScaled = checkpoints.avgGainAt(slot);
+            avgLossScaled = checkpoints.avgLossAt(slot);
+        }
+        series.truncateAfter(checkpoints.timestampAt(slot));
+        commit(checkpoints.timestampAt(slot), checkpoints.indexAt(slot));
+        return true;
+    }
+
+    /**
+     * Checks a restored state against {@code klineData}: the bar at lastTimestampMillis must
+     * be a closed bar with the snapshot's close, and the cached series tail must line up with
+     * the bars before it. A state that fails is invalidated, so the caller reseeds.
+     */
+    boolean confirmRestored(List<ApiKLine> klineData) {
+        restored = false;
+        int last = StatefulRsiIndicator.findResumeIndex(klineData, lastTimestampMillis, resumeIndex) - 1;
+        boolean valid = last >= 0 && last < klineData.size() - 1
+            && StatefulRsiIndicator.timestampMillis(klineData, last) == lastTimestampMillis
+            && (Double.isNaN(lastClose) || StatefulRsiIndicator.toDouble(klineData.get(last).close()) == lastClose)
+            && series.endsAt(klineData, last);
+        if (!valid) {
+            invalidate();
+            clearHistory();
+            lastClose = Double.NaN;
+            return false;
+        }
+        if (mode != StatefulRsiIndicator.NumericMode.DOUBLE) {
+            lastClose = Double.NaN;
+        }
+        resumeIndex = last;
+        return true;
+    }
+
+    /** The Numeric Mode setting this state was built for. */
+    StatefulRsiIndicator.NumericMode requestedMode() {
+        return fixedPointFallback ? StatefulRsiIndicator.NumericMode.FIXED_POINT : mode;
+    }
+
+    /** Drops the checkpoints and cached series ahead of a reseed from bar 0. */
+    void clearHistory() {
+        checkpoints.clear();
+        series.clear();
+        backfill = null;
+    }
+
+    void invalidate() {
+        seeded = false;
+    }
+}
@@ -0,0 +1,161 @@
+package com.EcoChartPro.plugins.community;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-instrument RSI states for feed threads that push closed bars concurrently.
+ * Instruments are spread over independent shards, so registering one never contends with
+ * another shard, and once a slot exists it is updated and read without any lock.
+ * Each slot has exactly one writer: the feed thread that owns the instrument. Readers on any
+ * thread take consistent (avgGain, avgLoss, lastTimestamp) snapshots through a seqlock: the
+ * writer makes the version odd while it publishes, and a reader retries until it sees the same
+ * even version before and after reading the fields.
+ * Each slot advances an {@link RsiStream}, so the arithmetic and seeding are those of
+ * {@link StatefulRsiIndicator} in DOUBLE mode.
+ */
+public final class RsiStateRegistry {
+
+    /** Published averages of one instrument; both NaN until the seed window has closed. */
+    public record Snapshot(double avgGain, double avgLoss, long lastTimestampMillis) {
+        public double rsi() {
+            return WilderMath.rsi(avgGain, avgLoss);
+        }
+    }
+
+    /** The state of one instrument. {@link #onBar} may only be called by its single writer. */
+    public static final class Slot {
+        private static final VarHandle VERSION;
+
+        static {
+            try {
+                VERSION = MethodHandles.lookup().findVarHandle(Slot.class, "version", long.class);
+            } catch (ReflectiveOperationException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+
+        /** Writer-only working state. */
+        private final RsiStream stream;
+
+        // --- Published under the seqlock ---
+        @SuppressWarnings("unused") // Accessed through VERSION
+        private volatile long version;
+        private double avgGain = Double.NaN;
+        private double avgLoss = Double.NaN;
+        private long lastTimestampMillis = Long.MIN_VALUE;
+
+        Slot(int period) {
+            this.stream = new RsiStream(period);
+        }
+
+        /**
+         * Applies the next closed bar and publishes the new averages. Returns the RSI, or NaN
+         * while the seed window is still open. Bars must arrive in timestamp order.
+         */
+        public double onBar(long timestampMillis, double close) {
+            double rsi = stream.onBar(timestampMillis, close);
+            if (stream.isSeeded()) {
+                publish(stream.avgGain(), stream.avgLoss(), timestampMillis);
+            } else {
+                publish(Double.NaN, Double.NaN, timestampMillis);
+            }
+            return rsi;
+        }
+
+        /** A consistent view of the last published bar; safe from any thread. */
+        public Snapshot snapshot() {
+            while (true) {
+                long before = (long) VERSION.getAcquire(this);
+                if ((before & 1) == 0) {
+                    double gain = avgGain;
+                    double loss = avgLoss;
+                    long timestamp = lastTimestampMillis;
+                    VarHandle.loadLoadFence();
+                    if ((long) VERSION.getOpaque(this) == before) {
+                        return new Snapshot(gain, loss, timestamp);
+                    }
+                }
+                Thread.onSpinWait();
+            }
+        }
+
+        private void publish(double gain, double loss, long timestampMillis) {
+            long current = (long) VERSION.getOpaque(this); // Only this thread writes it.
+            VERSION.setOpaque(this, current + 1);
+            VarHandle.storeStoreFence();
+            avgGain = gain;
+            avgLoss = loss;
+            lastTimestampMillis = timestampMillis;
+            VERSION.setRelease(this, current + 2);
+        }
+    }
+
+    private final int period;
+    private final ConcurrentHashMap<String, Slot>[] shards;
+    private final int shardMask;
+
+    public RsiStateRegistry(int period) {
+        this(period, Runtime.getRuntime().availableProcessors() * 4);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public RsiStateRegistry(int period, int minShards) {
+        if (period < 1) {
+            throw new IllegalArgumentException("period must be at least 1: " + period);
+        }
+        int count = Integer.highestOneBit(Math.max(minShards - 1, 1)) << 1; // Next power of two
+        this.period = period;
+        this.shards = new ConcurrentHashMap[count];
+        for (int s = 0; s < count; s++) {
+            shards[s] = new ConcurrentHashMap<>();
+        }
+        this.shardMask = count - 1;
+    }
+
+    public int period() {
+        return period;
+    }
+
+    /** The slot of {@code instrumentId}, created on first use. */
+    public Slot slot(String instrumentId) {
+        ConcurrentHashMap<String, Slot> shard = shard(instrumentId);
+        Slot slot = shard.get(instrumentId); // Lock-free once the slot exists.
+        return slot != null ? slot : shard.computeIfAbsent(instrumentId, id -> new Slot(period));
+    }
+
+    /** The slot of {@code instrumentId}, or null if no bar has been registered for it. */
+    public Slot find(String instrumentId) {
+        return shard(instrumentId).get(instrumentId);
+    }
+
+    /** Shortcut for {@code slot(instrumentId).onBar(timestampMillis, close)}; same single-writer rule. */
+    public double onBar(String instrumentId, long timestampMillis, double close) {
+        return slot(instrumentId).onBar(timestampMillis, close);
+    }
+
+    /** The latest snapshot of {@code instrumentId}, or null if it is unknown. */
+    public Snapshot snapshot(String instrumentId) {
+        Slot slot = find(instrumentId);
+        return slot != null ? slot.snapshot() : null;
+    }
+
+    /** Forgets an instrument; its writer must have stopped, or it will keep a detached slot. */
+    public void remove(String instrumentId) {
+        shard(instrumentId).remove(instrumentId);
+    }
+
+    public int size() {
+        int size = 0;
+        for (ConcurrentHashMap<String, Slot> shard : shards) {
+            size += shard.size();
+        }
+        return size;
+    }
+
+    private ConcurrentHashMap<String, Slot> shard(String instrumentId) {
+        int h = instrumentId.hashCode();
+        return shards[(h ^ (h >>> 16)) & shardMask];
+    }
+}
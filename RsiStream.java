@@ -0,0 +1,152 @@
+package com.EcoChartPro.plugins.community;
+
+/**
+ * Push-style RSI for live feeds: each closed bar is applied with {@link #onBar} in O(1),
+ * without handing over or traversing a kline list.
+ * A stream runs on the same {@link RsiState} as {@link StatefulRsiIndicator} in DOUBLE mode,
+ * and the indicator's own Double calculation advances its closed bars through it. A stream
+ * obtained from {@link StatefulRsiIndicator#stream} continues the indicator's committed state
+ * and keeps its cached series and checkpoints in step, so a later calculate() resumes after
+ * the pushed bars. A stream created with {@link #RsiStream(int)} is standalone and only keeps
+ * the averages.
+ * Not thread-safe; see {@link RsiStateRegistry} for concurrent feeds.
+ */
+public final class RsiStream {
+
+    private final RsiState state;
+    private final int period;
+    private final double smoothing;
+    /** Whether the series and checkpoints are kept, i.e. the state belongs to an indicator pane. */
+    private final boolean attached;
+    /** Changes accumulated while seeding a standalone stream. */
+    private int seedChanges;
+
+    /** A standalone stream that seeds itself from the first {@code period} + 1 closes. */
+    public RsiStream(int period) {
+        this(standaloneState(period), false);
+    }
+
+    RsiStream(RsiState state, boolean attached) {
+        this.state = state;
+        this.period = state.period;
+        this.smoothing = state.period - 1;
+        this.attached = attached;
+    }
+
+    private static RsiState standaloneState(int period) {
+        if (period < 1) {
+            throw new IllegalArgumentException("period must be at least 1: " + period);
+        }
+        RsiState state = new RsiState();
+        state.period = period;
+        state.mode = StatefulRsiIndicator.NumericMode.DOUBLE;
+        state.lastClose = Double.NaN;
+        return state;
+    }
+
+    public int period() {
+        return period;
+    }
+
+    public boolean isSeeded() {
+        return state.seeded;
+    }
+
+    /** Timestamp of the last committed bar. */
+    public long lastTimestampMillis() {
+        return state.lastTimestampMillis;
+    }
+
+    /** Average gain of the last committed bar; while seeding, the running sum of gains. */
+    double avgGain() {
+        return state.avgGain;
+    }
+
+    /** Average loss of the last committed bar; while seeding, the running sum of losses. */
+    double avgLoss() {
+        return state.avgLoss;
+    }
+
+    /** RSI of the last committed bar, or NaN while seeding. */
+    public double rsi() {
+        return state.seeded ? WilderMath.rsi(state.avgGain, state.avgLoss) : Double.NaN;
+    }
+
+    /**
+     * Applies a closed bar and returns its RSI, or NaN while the seed window is still open.
+     * Bars must arrive in timestamp order, after the last committed one.
+     */
+    public double onBar(long timestampMillis, double close) {
+        double prevClose = state.lastClose;
+        if (!state.seeded) {
+            if (attached) {
+                throw new IllegalStateException("The indicator state was reseeded; obtain a new stream after calculate()");
+            }
+            state.lastClose = close;
+            state.lastTimestampMillis = timestampMillis;
+            if (seedChanges++ == 0) {
+                return Double.NaN; // First close: nothing to compare against yet.
+            }
+        } else if (Double.isNaN(prevClose)) {
+            throw new IllegalStateException("The indicator state was rewound; obtain a new stream after calculate()");
+        }
+        double change = close - prevClose;
+        double gain = change > 0 ? change : 0.0;
+        double loss = change < 0 ? -change : 0.0;
+
+        if (!state.seeded) {
+            state.avgGain += gain;
+            state.avgLoss += loss;
+            if (seedChanges <= period) {
+                return Double.NaN;
+            }
+            state.avgGain /= period;
+            state.avgLoss /= period;
+        }
+        return advance(timestampMillis, close, gain, loss, state.resumeIndex + 1);
+    }
+
+    /**
+     * RSI the forming bar would have if it closed at {@code close}. Does not change the
+     * state; returns NaN while seeding, unless this bar would close the seed window.
+     */
+    public double onTick(double close) {
+        boolean closesSeed = !state.seeded && seedChanges == period;
+        if (!(state.seeded || closesSeed) || Double.isNaN(state.lastClose)) {
+            return Double.NaN;
+        }
+        double change = close - state.lastClose;
+        double gain = change > 0 ? change : 0.0;
+        double loss = change < 0 ? -change : 0.0;
+        if (closesSeed) {
+            double avgGain = (state.avgGain + gain) / period;
+            double avgLoss = (state.avgLoss + loss) / period;
+            return WilderMath.rsi((avgGain * smoothing + gain) / period, (avgLoss * smoothing + loss) / period);
+        }
+        return provisional(gain, loss);
+    }
+
+    /**
+     * Applies one closed bar from seeded averages and commits it. {@code index} is the bar's
+     * position in the host's kline list, or a best guess for pushed bars.
+     */
+    double advance(long timestampMillis, double close, double gain, double loss, int index) {
+        double avgGain = (state.avgGain * smoothing + gain) / period;
+        double avgLoss = (state.avgLoss * smoothing + loss) / period;
+        double rsi = WilderMath.rsi(avgGain, avgLoss);
+        if (attached) {
+            if (state.checkpoints.due()) {
+                state.checkpoints.record(timestampMillis, index, Double.doubleToRawLongBits(avgGain), Double.doubleToRawLongBits(avgLoss));
+            }
+            state.series.append(timestampMillis, rsi);
+        }
+        state.lastClose = close;
+        state.commitDouble(avgGain, avgLoss, timestampMillis, index);
+        return rsi;
+    }
+
+    /** RSI of a forming bar with the given change, from the averages as they stand. */
+    double provisional(double gain, double loss) {
+        return WilderMath.rsi((state.avgGain * smoothing + gain) / period, (state.avgLoss * smoothing + loss) / period);
+    }
+}
@@ -7,8 +7,6 @@ import com.EcoChartPro.api.indicator.IndicatorUtils;
 import com.EcoChartPro.api.indicator.Parameter;
 import com.EcoChartPro.api.indicator.ParameterType;
 import com.EcoChartPro.api.indicator.drawing.DataPoint;
-import com.EcoChartPro.api.indicator.drawing.DrawableBox;
-import com.EcoChartPro.api.indicator.drawing.DrawableLine;
 import com.EcoChartPro.api.indicator.drawing.DrawableObject;
 import com.EcoChartPro.api.indicator.drawing.DrawablePolyline;
 import com.EcoChartPro.core.indicator.IndicatorContext;
@@ -16,7 +14,7 @@ import com.EcoChartPro.core.indicator.IndicatorContext;
 import java.awt.Color;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
-import java.time.Instant; 
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -26,12 +24,95 @@ import java.util.Map;
  * A stateful implementation of the Relative Strength Index (RSI).
  * This indicator is drawn in a separate pane and shows momentum.
  * It uses Wilder's Smoothing for its calculations, which is a stateful/recursive process.
+ * <p>
+ * The smoothing runs on BigDecimal, on scaled longs with the same rounding, or on primitive
+ * doubles, as selected by the "Numeric Mode" parameter; see {@link NumericMode}.
+ * <p>
+ * The last kline is treated as still forming: its RSI is recomputed on every call from the
+ * averages of the bar before it, and only closed bars are committed to the Wilder state, one
+ * at a time through {@link RsiStream}. Live feeds can drive that stream directly via
+ * {@link #stream}. The points of all committed bars stay cached in the state, so every call
+ * returns the complete series while only new bars are computed; hosts that can patch their
+ * geometry may call {@link #calculateDelta} to receive just what changed. The state is
+ * checkpointed every {@code -Decochartpro.rsi.checkpoint.interval} closed bars, 1000 by
+ * default, so a revised past bar is handled with {@link #rewindTo} instead of a full reseed.
+ * A full reseed of a very long history in DOUBLE mode runs as a parallel prefix scan, see
+ * {@link ParallelReseed}.
+ * <p>
+ * Calls are counted and timed in {@link RsiMetrics} and recorded as JFR events by
+ * {@link RsiEvents}. {@link RsiSnapshotStore} persists the state so a restarted host resumes
+ * instead of reseeding.
  * Version: 1.1.1 (Compiler Fix)
  */
 public class StatefulRsiIndicator implements CustomIndicator {
 
     private static final int CALCULATION_SCALE = 10;
     private static final BigDecimal ONE_HUNDRED = BigDecimal.valueOf(100);
+    private static final float LINE_WIDTH = 2.0f;
+
+    /**
+     * Selects the arithmetic used for Wilder's Smoothing.
+     * DOUBLE runs the whole recurrence on primitives and only converts to BigDecimal when
+     * building each DataPoint. Its output differs from BIG_DECIMAL mostly through BIG_DECIMAL's
+     * own rounding of the averages to CALCULATION_SCALE places, which matters relative to the
+     * size of the price moves; {@link #doubleTolerance} bounds the difference per bar.
+     * FIXED_POINT keeps the averages as longs scaled by 10^CALCULATION_SCALE and reproduces
+     * the HALF_UP divides of BIG_DECIMAL, so its output is identical to BIG_DECIMAL. If a close
+     * has more than CALCULATION_SCALE decimals or a value would overflow a long, that call
+     * falls back to BIG_DECIMAL.
+     */
+    public enum NumericMode {
+        BIG_DECIMAL("BigDecimal"),
+        DOUBLE("Double"),
+        FIXED_POINT("Fixed Point");
+
+        private final String label;
+
+        NumericMode(String label) {
+            this.label = label;
+        }
+
+        public String label() {
+            return label;
+        }
+
+        public static String[] labels() {
+            NumericMode[] modes = values();
+            String[] labels = new String[modes.length];
+            for (int i = 0; i < modes.length; i++) {
+                labels[i] = modes[i].label;
+            }
+            return labels;
+        }
+
+        public static NumericMode fromSetting(Object setting) {
+            for (NumericMode mode : values()) {
+                if (mode.label.equals(setting)) {
+                    return mode;
+                }
+            }
+            return BIG_DECIMAL; // Unknown or missing setting: keep the exact behaviour.
+        }
+    }
+
+    /**
+     * Bound, in RSI points, on the difference between DOUBLE and BIG_DECIMAL output at a bar
+     * with the given averages. Each BIG_DECIMAL divide rounds the averages by up to
+     * 0.5 * 10^-CALCULATION_SCALE, and the smoothing lets about {@code period} such errors
+     * accumulate, so the bound is 100 * period * 0.5 * 10^-CALCULATION_SCALE / (avgGain + avgLoss),
+     * plus the rounding of the RSI itself. It therefore depends on the close scale and size of
+     * the moves: a series quoted in cents that moves by a few cents a bar stays within about
+     * 1e-5 points, while one moving by single ticks at 8 decimals can differ by whole points.
+     */
+    public static double doubleTolerance(int period, double avgGain, double avgLoss) {
+        double movement = avgGain + avgLoss;
+        double averagesTerm = movement == 0.0 ? 0.0 : 100.0 * 0.5 * period / SCALE_FACTOR / movement;
+        return averagesTerm + 100.0 / SCALE_FACTOR;
+    }
+
+    private static final double SCALE_FACTOR = 1e10; // 10^CALCULATION_SCALE
+    /** Bars the backfill after a restore advances per call. */
+    private static final int BACKFILL_BARS = 100_000;
 
     @Override
     public String getName() {
@@ -50,33 +131,244 @@ public class StatefulRsiIndicator implements CustomIndicator {
             new Parameter("Overbought", ParameterType.INTEGER, 70),
             new Parameter("Oversold", ParameterType.INTEGER, 30),
             new Parameter("RSI Color", ParameterType.COLOR, new Color(156, 39, 176)), // Purple
-            new Parameter("Band Color", ParameterType.COLOR, new Color(128, 128, 128, 50)) // Semi-transparent gray
+            new Parameter("Band Color", ParameterType.COLOR, new Color(128, 128, 128, 50)), // Semi-transparent gray
+            new Parameter("Numeric Mode", ParameterType.CHOICE, NumericMode.BIG_DECIMAL.label(), NumericMode.labels())
         );
     }
 
     @Override
     public void onSettingsChanged(Map<String, Object> newSettings, Map<String, Object> state) {
-        // Critical: If the period changes, all previous state is invalid.
+        Object stored = state.get(RsiState.KEY);
+        if (!(stored instanceof RsiState)) {
+            state.clear();
+            return;
+        }
+        RsiState rsiState = (RsiState) stored;
+
+        // Critical: If the period or the numeric mode changes, the Wilder state is invalid.
         // Clearing the state map signals the IndicatorRunner to set isReset=true on the next run.
-        state.clear();
+        int period = (Integer) newSettings.get("Period");
+        NumericMode mode = NumericMode.fromSetting(newSettings.get("Numeric Mode"));
+        if (!rsiState.seeded || period != rsiState.period || mode != rsiState.requestedMode()) {
+            state.clear();
+            RsiEvents.stateInvalidated(rsiState.period, rsiState.seeded ? rsiState.requestedMode() : null, period, mode);
+        }
+        // Everything else keeps the Wilder state and the cached series. The band drawables are
+        // keyed on the levels and band color and rebuild themselves on the next call, and the
+        // RSI color is applied to each new polyline.
+    }
+
+    /**
+     * Call when the bar at {@code revisedTimestamp} (or any earlier bar) was revised.
+     * The Wilder state is rolled back to the newest checkpoint before that bar, so the next
+     * calculate() only recomputes from there. Returns false if no checkpoint precedes it, in
+     * which case the next calculate() reseeds from bar 0, as if the state had been cleared.
+     */
+    public static boolean rewindTo(Map<String, Object> state, Instant revisedTimestamp) {
+        Object stored = state.get(RsiState.KEY);
+        return stored instanceof RsiState && ((RsiState) stored).rewindTo(revisedTimestamp.toEpochMilli());
+    }
+
+    /**
+     * Returns a push-style stream that continues this pane's committed Double-mode state, for
+     * feeds that deliver closed bars one at a time. Bars pushed through it are cached like
+     * calculated ones, so the next calculate() resumes after them. Obtain a new stream after
+     * any call that reseeds or rewinds the state.
+     */
+    public static RsiStream stream(Map<String, Object> state) {
+        Object stored = state.get(RsiState.KEY);
+        if (!(stored instanceof RsiState) || !((RsiState) stored).seeded || ((RsiState) stored).mode != NumericMode.DOUBLE) {
+            throw new IllegalStateException("stream() needs a state seeded by calculate() in Double mode");
+        }
+        return new RsiStream((RsiState) stored, true);
     }
 
     @Override
     public List<DrawableObject> calculate(IndicatorContext context) {
-        int period = (int) context.settings().get("Period");
         Color color = (Color) context.settings().get("RSI Color");
-        BigDecimal overboughtLevel = BigDecimal.valueOf((Integer) context.settings().get("Overbought"));
-        BigDecimal oversoldLevel = BigDecimal.valueOf((Integer) context.settings().get("Oversold"));
-        Color bandColor = (Color) context.settings().get("Band Color");
-        
         List<ApiKLine> klineData = context.klineData();
-        Map<String, Object> state = context.state();
+        RsiState state = RsiState.from(context.state());
 
-        if (klineData.size() < period) {
+        List<DataPoint> rsiPoints = updateSeries(context, state);
+        if (rsiPoints == null) {
             return Collections.emptyList();
         }
+        state.series.markDelivered();
 
-        List<DataPoint> rsiPoints = new ArrayList<>();
+        // --- Prepare Drawable Objects ---
+        List<DrawableObject> drawables = new ArrayList<>();
+        
+        if (!rsiPoints.isEmpty()) {
+            drawables.add(new DrawablePolyline(rsiPoints, color, LINE_WIDTH));
+        }
+        drawables.addAll(state.band.get(klineData, context.settings()));
+        state.band.markDelivered();
+
+        return drawables;
+    }
+
+    /**
+     * Incremental counterpart of {@link #calculate} for hosts that can patch their geometry.
+     * Runs the same calculation, but returns only the RSI points that were appended or changed
+     * since the previous call, along with the current line style, and flags whether the band
+     * box and level lines changed.
+     * Hosts that do not support it keep calling calculate().
+     */
+    public RsiDelta calculateDelta(IndicatorContext context) {
+        Color color = (Color) context.settings().get("RSI Color");
+        List<ApiKLine> klineData = context.klineData();
+        RsiState state = RsiState.from(context.state());
+
+        List<DataPoint> rsiPoints = updateSeries(context, state);
+        if (rsiPoints == null) {
+            // Nothing to draw: the host must clear, and the next delta must resend everything.
+            state.series.markUndelivered();
+            state.band.invalidate();
+            return new RsiDelta(0, Collections.emptyList(), color, LINE_WIDTH, false, Collections.emptyList());
+        }
+        int replaceFrom = Math.min(state.series.firstUndelivered(), rsiPoints.size());
+        state.series.markDelivered();
+
+        List<DrawableObject> band = state.band.get(klineData, context.settings());
+        boolean staticUnchanged = state.band.markDelivered();
+        return new RsiDelta(replaceFrom, rsiPoints.subList(replaceFrom, rsiPoints.size()), color, LINE_WIDTH, staticUnchanged,
+            staticUnchanged ? Collections.emptyList() : band);
+    }
+
+    /**
+     * Brings the Wilder state and the cached series up to date with klineData and returns the
+     * full series, or null if there are not enough bars to seed.
+     */
+    private List<DataPoint> updateSeries(IndicatorContext context, RsiState state) {
+        int period = (int) context.settings().get("Period");
+        List<ApiKLine> klineData = context.klineData();
+
+        if (klineData.size() <= period) { // Seeding reads the changes of bars 1..period.
+            return null;
+        }
+
+        int committedBefore = state.series.size();
+        // A snapshot restored on a cold start resumes through the host's initial reset, once it
+        // has been checked against this history.
+        boolean confirmed = state.restored && state.confirmRestored(klineData);
+        boolean fresh = context.isReset() && !confirmed;
+        NumericMode mode = NumericMode.fromSetting(context.settings().get("Numeric Mode"));
+        boolean fixedPointFallback = mode == NumericMode.FIXED_POINT && !fresh && state.fixedPointFallback;
+        if (fixedPointFallback) {
+            mode = NumericMode.BIG_DECIMAL; // Keep resuming the fallback state instead of reseeding every call.
+        }
+        // DOUBLE and the scaled modes keep different averages, so one cannot resume the other.
+        // Bars prepended before the seeded history have no points yet, so they reseed too.
+        boolean reset = fresh || !state.seeded || state.mode != mode || state.period != period
+            || timestampMillis(klineData, 0) < state.firstTimestampMillis;
+        boolean timed = RsiMetrics.ENABLED && (reset || RsiMetrics.global().sampleIncremental());
+        long startNanos = timed ? System.nanoTime() : 0L;
+        RsiEvents.Reseed reseedEvent = reset ? RsiEvents.beginReseed() : null;
+        RsiEvents.SlowCalculation slowEvent = RsiEvents.beginSlowCalculation();
+        if (!reset && timestampMillis(klineData, 0) > state.firstTimestampMillis) {
+            // Bars trimmed from the front take their points with them.
+            state.firstTimestampMillis = timestampMillis(klineData, 0);
+            state.series.dropBefore(state.firstTimestampMillis);
+        }
+        if (reset) {
+            state.clearHistory();
+            state.firstTimestampMillis = timestampMillis(klineData, 0);
+        } else if (confirmed) {
+            // Only the saved tail is drawn on this call; the following calls rebuild the rest.
+            state.backfill = new RsiState();
+        } else if (state.backfill != null) {
+            backfill(klineData, state);
+        }
+
+        List<DataPoint> rsiPoints;
+        switch (mode) {
+            case DOUBLE:
+                rsiPoints = calculateDouble(klineData, state, period, reset);
+                break;
+            case FIXED_POINT:
+                rsiPoints = calculateFixedPoint(klineData, state, period, reset);
+                if (rsiPoints == null) {
+                    // Not representable as scaled longs. BigDecimal state is not resumable by
+                    // this mode, so the fallback always reseeds.
+                    mode = NumericMode.BIG_DECIMAL;
+                    if (reseedEvent == null) {
+                        reseedEvent = RsiEvents.beginReseed();
+                    }
+                    state.clearHistory();
+                    rsiPoints = calculateBigDecimal(klineData, state, period, true);
+                    fixedPointFallback = true;
+                    reset = true;
+                }
+                break;
+            default:
+                rsiPoints = calculateBigDecimal(klineData, state, period, reset);
+                break;
+        }
+        state.mode = mode;
+        state.fixedPointFallback = fixedPointFallback;
+        state.period = period;
+        if (RsiMetrics.ENABLED) {
+            RsiMetrics metrics = RsiMetrics.global();
+            metrics.count(reset, reset ? klineData.size() : state.series.size() - committedBefore + 1); // + the forming bar
+            if (timed) {
+                metrics.time(reset, System.nanoTime() - startNanos);
+            }
+        }
+        if (reseedEvent != null) {
+            reseedEvent.end(period, klineData.size(), mode);
+        }
+        if (slowEvent != null) {
+            slowEvent.end(period, klineData.size(), mode, reset);
+        }
+        return rsiPoints;
+    }
+
+    /**
+     * Advances the reseed that rebuilds the points before a restored tail by up to
+     * {@link #BACKFILL_BARS} bars, and splices its points in front of the series once it
+     * reaches the tail. Restarts if bars were prepended or trimmed, and is dropped if the tail
+     * is no longer in klineData.
+     */
+    private void backfill(List<ApiKLine> klineData, RsiState state) {
+        int end = state.series.size() == 0 ? -1 : findResumeIndex(klineData, state.series.firstTimestamp(), 0) - 1;
+        if (end <= state.period || timestampMillis(klineData, end) != state.series.firstTimestamp()) {
+            state.backfill = null; // Nothing is missing, or the tail's bars are gone.
+            return;
+        }
+        RsiState backfill = state.backfill;
+        if (!backfill.seeded || backfill.firstTimestampMillis != timestampMillis(klineData, 0)) {
+            backfill = new RsiState();
+            backfill.period = state.period;
+            backfill.mode = state.mode;
+            backfill.firstTimestampMillis = timestampMillis(klineData, 0);
+            state.backfill = backfill;
+        }
+        boolean reset = !backfill.seeded;
+        int stop = Math.min(end, reset ? BACKFILL_BARS : backfill.resumeIndex + 1 + BACKFILL_BARS);
+        // The bar at stop is treated as forming, so only the bars before it are committed.
+        List<ApiKLine> window = klineData.subList(0, stop + 1);
+        List<DataPoint> points;
+        switch (backfill.mode) {
+            case DOUBLE:
+                points = calculateDouble(window, backfill, backfill.period, reset);
+                break;
+            case FIXED_POINT:
+                points = calculateFixedPoint(window, backfill, backfill.period, reset);
+                break;
+            default:
+                points = calculateBigDecimal(window, backfill, backfill.period, reset);
+                break;
+        }
+        if (points == null) {
+            state.backfill = null; // Not representable as scaled longs; keep the tail only.
+        } else if (stop == end) {
+            state.series.prepend(backfill.series);
+            state.firstTimestampMillis = backfill.firstTimestampMillis;
+            state.backfill = null;
+        }
+    }
+
+    private List<DataPoint> calculateBigDecimal(List<ApiKLine> klineData, RsiState state, int period, boolean reset) {
         BigDecimal periodDecimal = BigDecimal.valueOf(period);
 
         BigDecimal avgGain;
@@ -84,7 +376,7 @@ public class StatefulRsiIndicator implements CustomIndicator {
 
         int startIndex = 1; // Start calculations from the second bar
 
-        if (context.isReset() || state.get("avgGain") == null) {
+        if (reset) {
             // State is invalid or this is the first run. We must seed the initial values.
             BigDecimal firstGainSum = BigDecimal.ZERO;
             BigDecimal firstLossSum = BigDecimal.ZERO;
@@ -100,20 +392,24 @@ public class StatefulRsiIndicator implements CustomIndicator {
             startIndex = period;
         } else {
             // State is valid. Retrieve the last known values.
-            avgGain = (BigDecimal) state.get("avgGain");
-            avgLoss = (BigDecimal) state.get("avgLoss");
-            
-            Instant lastTimestamp = (Instant) state.get("lastTimestamp");
-            for (int i = 1; i < klineData.size(); i++) {
-                if (klineData.get(i).timestamp().isAfter(lastTimestamp)) {
-                    startIndex = i;
-                    break;
-                }
-            }
+            avgGain = FixedPointMath.toDecimal(state.avgGainScaled);
+            avgLoss = FixedPointMath.toDecimal(state.avgLossScaled);
+
+            startIndex = findResumeIndex(klineData, state.lastTimestampMillis, state.resumeIndex);
         }
 
+        // The last bar may still be forming. It is drawn, but the committed state stops before it.
+        int formingIndex = klineData.size() - 1;
+        BigDecimal committedGain = avgGain;
+        BigDecimal committedLoss = avgLoss;
+        DataPoint forming = null;
+
         // --- Core Calculation Loop ---
         for (int i = startIndex; i < klineData.size(); i++) {
+            if (i == formingIndex) {
+                committedGain = avgGain;
+                committedLoss = avgLoss;
+            }
             BigDecimal change = klineData.get(i).close().subtract(klineData.get(i-1).close());
             BigDecimal gain = change.signum() > 0 ? change : BigDecimal.ZERO;
             BigDecimal loss = change.signum() < 0 ? change.abs() : BigDecimal.ZERO;
@@ -128,33 +424,253 @@ public class StatefulRsiIndicator implements CustomIndicator {
                 BigDecimal rs = avgGain.divide(avgLoss, CALCULATION_SCALE, RoundingMode.HALF_UP);
                 rsi = ONE_HUNDRED.subtract(ONE_HUNDRED.divide(BigDecimal.ONE.add(rs), CALCULATION_SCALE, RoundingMode.HALF_UP));
             }
+
+            if (i < formingIndex && state.checkpoints.due()) {
+                long gainScaled = FixedPointMath.toScaled(avgGain);
+                long lossScaled = FixedPointMath.toScaled(avgLoss);
+                if (gainScaled != FixedPointMath.OVERFLOW && lossScaled != FixedPointMath.OVERFLOW) {
+                    state.checkpoints.record(timestampMillis(klineData, i), i, gainScaled, lossScaled);
+                }
+            }
             
-            rsiPoints.add(new DataPoint(klineData.get(i).timestamp(), rsi));
+            if (i < formingIndex) {
+                state.series.append(timestampMillis(klineData, i), rsi.doubleValue());
+            } else {
+                forming = new DataPoint(klineData.get(i).timestamp(), rsi);
+            }
         }
         
         // --- Store the final state for the next calculate() call ---
-        if (!klineData.isEmpty()) {
-            state.put("avgGain", avgGain);
-            state.put("avgLoss", avgLoss);
-            state.put("lastTimestamp", klineData.get(klineData.size() - 1).timestamp());
+        if (canCommit(startIndex, formingIndex, period, reset)) {
+            long avgGainScaled = FixedPointMath.toScaled(committedGain);
+            long avgLossScaled = FixedPointMath.toScaled(committedLoss);
+            if (avgGainScaled == FixedPointMath.OVERFLOW || avgLossScaled == FixedPointMath.OVERFLOW) {
+                state.invalidate(); // Averages beyond a scaled long: reseed on the next call.
+            } else {
+                state.commitScaled(avgGainScaled, avgLossScaled, timestampMillis(klineData, formingIndex - 1), formingIndex - 1);
+            }
+        } else if (reset) {
+            state.invalidate();
         }
+        return state.series.view(forming);
+    }
 
-        // --- Prepare Drawable Objects ---
-        List<DrawableObject> drawables = new ArrayList<>();
-        
-        if (!rsiPoints.isEmpty()) {
-            drawables.add(new DrawablePolyline(rsiPoints, color, 2.0f));
+    /**
+     * Same algorithm as {@link #calculateBigDecimal}, but the smoothing runs entirely on primitive
+     * doubles, over the gain and loss columns of the state's {@link KlineColumns}. BigDecimal is
+     * only touched to extract each new close once; the cached series stores plain doubles.
+     */
+    private List<DataPoint> calculateDouble(List<ApiKLine> klineData, RsiState state, int period, boolean reset) {
+        state.columns.sync(klineData);
+        long[] timestamps = state.columns.timestamps();
+        double[] closes = state.columns.closes();
+        double[] gains = state.columns.gains();
+        double[] losses = state.columns.losses();
+        int formingIndex = klineData.size() - 1;
+
+        int startIndex = 1;
+
+        if (reset) {
+            double firstGainSum = 0.0;
+            double firstLossSum = 0.0;
+
+            for (int i = 1; i <= period; i++) {
+                firstGainSum += gains[i];
+                firstLossSum += losses[i];
+            }
+            // Seeded but not committed: the stream advances from here.
+            state.period = period;
+            state.avgGain = firstGainSum / period;
+            state.avgLoss = firstLossSum / period;
+
+            startIndex = period;
+            if (ParallelReseed.worthwhile(klineData.size() - 1 - period)) {
+                // Closed bars go through the parallel scan; only the forming bar is left below.
+                double[] averages = ParallelReseed.run(timestamps, gains, losses, formingIndex, period, state.avgGain, state.avgLoss, state);
+                state.lastClose = closes[formingIndex - 1];
+                state.commitDouble(averages[0], averages[1], timestamps[formingIndex - 1], formingIndex - 1);
+                startIndex = formingIndex;
+            }
+        } else {
+            startIndex = findResumeIndex(klineData, state.lastTimestampMillis, state.resumeIndex);
         }
 
-        if (!klineData.isEmpty()) {
-            DataPoint corner1 = new DataPoint(klineData.get(0).timestamp(), overboughtLevel);
-            DataPoint corner2 = new DataPoint(klineData.get(klineData.size() - 1).timestamp(), oversoldLevel);
-            drawables.add(new DrawableBox(corner1, corner2, bandColor, null, 0f));
+        // --- Core Calculation Loop ---
+        // Closed bars are committed one by one through the stream; the forming bar is provisional.
+        RsiStream stream = new RsiStream(state, true);
+        for (int i = startIndex; i < formingIndex; i++) {
+            stream.advance(timestamps[i], closes[i], gains[i], losses[i], i);
+        }
+        DataPoint forming = null;
+        if (startIndex <= formingIndex) {
+            double rsi = stream.provisional(gains[formingIndex], losses[formingIndex]);
+            forming = new DataPoint(klineData.get(formingIndex).timestamp(), toDecimal(rsi));
         }
-        
-        drawables.add(new DrawableLine.Horizontal(overboughtLevel, bandColor.darker(), 1.0f, true));
-        drawables.add(new DrawableLine.Horizontal(oversoldLevel, bandColor.darker(), 1.0f, true));
 
-        return drawables;
+        if (reset && !canCommit(startIndex, formingIndex, period, reset)) {
+            state.invalidate();
+        }
+        return state.series.view(forming);
+    }
+
+    /**
+     * Same algorithm as {@link #calculateBigDecimal}, with the averages held as longs scaled by
+     * 10^CALCULATION_SCALE. The recurrence itself does not allocate, and each HALF_UP divide
+     * matches the corresponding BigDecimal divide digit for digit.
+     * Returns null if the data cannot be represented. The averages are then left untouched,
+     * but points and checkpoints may have been added, so the caller must reseed.
+     */
+    private List<DataPoint> calculateFixedPoint(List<ApiKLine> klineData, RsiState state, int period, boolean reset) {
+        long smoothing = period - 1;
+
+        long avgGain;
+        long avgLoss;
+
+        int startIndex = 1;
+
+        if (reset) {
+            long firstGainSum = 0;
+            long firstLossSum = 0;
+
+            long prevClose = FixedPointMath.toScaled(klineData.get(0).close());
+            for (int i = 1; i <= period; i++) {
+                long close = FixedPointMath.toScaled(klineData.get(i).close());
+                if (prevClose == FixedPointMath.OVERFLOW || close == FixedPointMath.OVERFLOW) {
+                    return null;
+                }
+                long change = close - prevClose;
+                if (change > 0) {
+                    firstGainSum = FixedPointMath.multiplyAdd(firstGainSum, 1, change);
+                } else {
+                    firstLossSum = FixedPointMath.multiplyAdd(firstLossSum, 1, -change);
+                }
+                if (firstGainSum == FixedPointMath.OVERFLOW || firstLossSum == FixedPointMath.OVERFLOW) {
+                    return null;
+                }
+                prevClose = close;
+            }
+            avgGain = FixedPointMath.divideHalfUp(firstGainSum, period);
+            avgLoss = FixedPointMath.divideHalfUp(firstLossSum, period);
+
+            startIndex = period;
+        } else {
+            avgGain = state.avgGainScaled;
+            avgLoss = state.avgLossScaled;
+
+            startIndex = findResumeIndex(klineData, state.lastTimestampMillis, state.resumeIndex);
+        }
+        long prevClose = FixedPointMath.toScaled(klineData.get(startIndex - 1).close());
+
+        int formingIndex = klineData.size() - 1;
+        long committedGain = avgGain;
+        long committedLoss = avgLoss;
+        DataPoint forming = null;
+
+        // --- Core Calculation Loop ---
+        for (int i = startIndex; i < klineData.size(); i++) {
+            if (i == formingIndex) {
+                committedGain = avgGain;
+                committedLoss = avgLoss;
+            }
+            ApiKLine kline = klineData.get(i);
+            long close = FixedPointMath.toScaled(kline.close());
+            if (prevClose == FixedPointMath.OVERFLOW || close == FixedPointMath.OVERFLOW) {
+                return null;
+            }
+            long change = close - prevClose;
+            prevClose = close;
+
+            long gainNumerator = FixedPointMath.multiplyAdd(avgGain, smoothing, change > 0 ? change : 0);
+            long lossNumerator = FixedPointMath.multiplyAdd(avgLoss, smoothing, change < 0 ? -change : 0);
+            if (gainNumerator == FixedPointMath.OVERFLOW || lossNumerator == FixedPointMath.OVERFLOW) {
+                return null;
+            }
+            avgGain = FixedPointMath.divideHalfUp(gainNumerator, period);
+            avgLoss = FixedPointMath.divideHalfUp(lossNumerator, period);
+            if (i < formingIndex && state.checkpoints.due()) {
+                state.checkpoints.record(kline.timestamp().toEpochMilli(), i, avgGain, avgLoss);
+            }
+
+            long rsi;
+            if (avgLoss == 0) {
+                rsi = FixedPointMath.ONE_HUNDRED;
+            } else {
+                long rs = FixedPointMath.divideScaled(avgGain, avgLoss);
+                long ratio = rs == FixedPointMath.OVERFLOW || rs > Long.MAX_VALUE - FixedPointMath.ONE
+                    ? FixedPointMath.OVERFLOW
+                    : FixedPointMath.divideScaled(FixedPointMath.ONE_HUNDRED, FixedPointMath.ONE + rs);
+                if (ratio == FixedPointMath.OVERFLOW) {
+                    return null;
+                }
+                rsi = FixedPointMath.ONE_HUNDRED - ratio;
+            }
+
+            if (i < formingIndex) {
+                state.series.append(kline.timestamp().toEpochMilli(), rsi / SCALE_FACTOR);
+            } else {
+                forming = new DataPoint(kline.timestamp(), avgLoss == 0 ? ONE_HUNDRED : FixedPointMath.toDecimal(rsi));
+            }
+        }
+
+        if (canCommit(startIndex, formingIndex, period, reset)) {
+            state.commitScaled(committedGain, committedLoss, timestampMillis(klineData, formingIndex - 1), formingIndex - 1);
+        } else if (reset) {
+            state.invalidate();
+        }
+        return state.series.view(forming);
+    }
+
+    static long timestampMillis(List<ApiKLine> klineData, int index) {
+        return klineData.get(index).timestamp().toEpochMilli();
+    }
+
+    /**
+     * Whether the averages of the bar before the forming one may be committed. Nothing is
+     * committed when no bar was processed, or when a reseed's window reached the forming bar,
+     * since the seed sums would then include its provisional close.
+     */
+    static boolean canCommit(int startIndex, int formingIndex, int period, boolean reset) {
+        return startIndex <= formingIndex && (!reset || formingIndex > period);
+    }
+
+    /**
+     * Returns the index of the first bar after {@code lastTimestamp}, or klineData.size() if
+     * there is none. The common case, where the list only grew, is answered in O(1) from
+     * {@code resumeIndex}, the index lastTimestamp had when it was committed. If the list was
+     * trimmed or shifted, falls back to a binary search, which relies on klineData being sorted
+     * by timestamp.
+     */
+    static int findResumeIndex(List<ApiKLine> klineData, long lastTimestamp, int resumeIndex) {
+        int size = klineData.size();
+
+        if (resumeIndex < size && klineData.get(resumeIndex).timestamp().toEpochMilli() == lastTimestamp) {
+            return Math.max(resumeIndex + 1, 1);
+        }
+
+        int low = 1;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (klineData.get(mid).timestamp().toEpochMilli() > lastTimestamp) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Prices are almost always small compact decimals, which BigDecimal.doubleValue() converts
+     * exactly as unscaled / 10^scale without allocating. Going through unscaledValue() would
+     * allocate a BigInteger per bar, so the columns use this rather than a hand-rolled path.
+     */
+    static double toDouble(BigDecimal value) {
+        return value.doubleValue();
+    }
+
+    static BigDecimal toDecimal(double rsi) {
+        // RSI is bounded to [0, 100], so the scaled value always fits in a long.
+        return rsi == 100.0 ? ONE_HUNDRED : BigDecimal.valueOf(Math.round(rsi * SCALE_FACTOR), CALCULATION_SCALE);
     }
 }
@@ -0,0 +1,19 @@
+package com.EcoChartPro.plugins.community;
+
+/**
+ * Wilder's RSI on primitive doubles, shared by every DOUBLE-mode engine.
+ * Seeding follows {@link StatefulRsiIndicator}: the first averages are the means of the
+ * changes of bars 1..period, and the bar that closes that window is then smoothed once more
+ * with its own change. Engines that seed incrementally keep the running sums in their average
+ * slots until the window closes, and divide them by the period there.
+ */
+final class WilderMath {
+
+    private WilderMath() {
+    }
+
+    /** RSI of the given averages; 100 when there were no losses. */
+    static double rsi(double avgGain, double avgLoss) {
+        return avgLoss == 0.0 ? 100.0 : 100.0 - 100.0 / (1.0 + avgGain / avgLoss);
+    }
+}
@@ -0,0 +1,103 @@
+package com.EcoChartPro.plugins.community;
+
+import com.EcoChartPro.api.indicator.ApiKLine;
+import com.EcoChartPro.api.indicator.CustomIndicator;
+import com.EcoChartPro.api.indicator.drawing.DrawableObject;
+import com.EcoChartPro.core.indicator.IndicatorContext;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Replays a {@link KlineFile} through the RSI engines for offline backtests.
+ * {@link #replay(KlineFile, RsiStream, double[])} pushes bar by bar through an RsiStream
+ * straight from the mapping, without allocating. {@link #replay(KlineFile, CustomIndicator, Map, int, Consumer)}
+ * drives calculate() as a chart would, in batches of closed bars on one state.
+ * Part of the tools source set, which stays out of the plugin artifact; see {@link RsiChecks}.
+ * Also runnable, with {@code java com.EcoChartPro.plugins.community.KlineReplay}:
+ * <ul>
+ *   <li>{@code convert <csv> <target> [priceScale=5] [volumeScale=2] [--close-only]}</li>
+ *   <li>{@code replay <file> [period=14] [batch=0 for the stream, or bars per calculate() call] [mode=Double]}</li>
+ * </ul>
+ */
+public final class KlineReplay {
+
+    private KlineReplay() {
+    }
+
+    /**
+     * Pushes every bar of {@code file} through {@code stream} as a closed bar and writes each
+     * RSI, NaN while seeding, to {@code rsiOut}, which must hold file.size() values.
+     */
+    public static void replay(KlineFile file, RsiStream stream, double[] rsiOut) {
+        int size = file.size();
+        if (rsiOut.length < size) {
+            throw new IllegalArgumentException("rsiOut holds " + rsiOut.length + " of " + size + " bars");
+        }
+        for (int i = 0; i < size; i++) {
+            rsiOut[i] = stream.onBar(file.timestampMillis(i), file.close(i));
+        }
+    }
+
+    /**
+     * Feeds {@code file} to {@code indicator} on one state: the first call sees the first
+     * {@code batchSize} bars with isReset set, every later call {@code batchSize} more. With a
+     * batch of 1, each bar arrives as it would live. As on a chart, the last bar of each call is
+     * treated as forming. The drawables of every call go to {@code sink}. Returns the calls made.
+     */
+    public static int replay(KlineFile file, CustomIndicator indicator, Map<String, Object> settings, int batchSize,
+                             Consumer<List<DrawableObject>> sink) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be positive");
+        }
+        List<ApiKLine> klines = file.klines();
+        Map<String, Object> state = new HashMap<>();
+        int calls = 0;
+        for (int end = Math.min(batchSize, klines.size()); end > 0; end = Math.min(end + batchSize, klines.size())) {
+            sink.accept(indicator.calculate(new IndicatorContext(klines.subList(0, end), settings, state, calls == 0)));
+            calls++;
+            if (end == klines.size()) {
+                break;
+            }
+        }
+        return calls;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length >= 3 && args[0].equals("convert")) {
+            boolean ohlcv = !List.of(args).contains("--close-only");
+            int priceScale = args.length > 3 && !args[3].startsWith("--") ? Integer.parseInt(args[3]) : 5;
+            int volumeScale = args.length > 4 && !args[4].startsWith("--") ? Integer.parseInt(args[4]) : 2;
+            long start = System.nanoTime();
+            int bars = KlineFile.convertCsv(Path.of(args[1]), Path.of(args[2]), priceScale, volumeScale, ohlcv);
+            System.err.printf(Locale.ROOT, "converted %,d bars in %.1f ms%n", bars, (System.nanoTime() - start) / 1e6);
+        } else if (args.length >= 2 && args[0].equals("replay")) {
+            int period = args.length > 2 ? Integer.parseInt(args[2]) : 14;
+            int batch = args.length > 3 ? Integer.parseInt(args[3]) : 0;
+            String mode = args.length > 4 ? args[4] : StatefulRsiIndicator.NumericMode.DOUBLE.label();
+            try (KlineFile file = new KlineFile(Path.of(args[1]))) {
+                long start = System.nanoTime();
+                String result;
+                if (batch == 0) {
+                    double[] rsi = new double[file.size()];
+                    replay(file, new RsiStream(period), rsi);
+                    result = "last RSI " + (file.size() == 0 ? Double.NaN : rsi[file.size() - 1]);
+                } else {
+                    result = replay(file, new StatefulRsiIndicator(), RsiChecks.settings(mode, period), batch, drawables -> { }) + " calls";
+                }
+                long elapsed = System.nanoTime() - start;
+                System.err.printf(Locale.ROOT, "replayed %,d bars in %.1f ms (%,.0f bars/s), %s%n",
+                    file.size(), elapsed / 1e6, file.size() / (elapsed / 1e9), result);
+            }
+        } else {
+            System.err.println("Usage: convert <csv> <target> [priceScale] [volumeScale] [--close-only]");
+            System.err.println("       replay <file> [period] [batch] [mode]");
+            System.exit(2);
+        }
+    }
+}
@@ -0,0 +1,270 @@
+package com.EcoChartPro.plugins.community;
+
+import com.EcoChartPro.api.indicator.ApiKLine;
+import com.EcoChartPro.api.indicator.CustomIndicator;
+import com.EcoChartPro.api.indicator.drawing.DataPoint;
+import com.EcoChartPro.api.indicator.drawing.DrawableObject;
+import com.EcoChartPro.api.indicator.drawing.DrawablePolyline;
+import com.EcoChartPro.core.indicator.IndicatorContext;
+
+import java.awt.Color;
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.ToIntFunction;
+
+/**
+ * Standalone benchmark of the RSI panes, run with
+ * {@code java com.EcoChartPro.plugins.community.RsiBenchmark}, plus
+ * {@code --add-modules jdk.incubator.vector} to measure the optional vector kernel. Part of
+ * the tools source set, which stays out of the plugin artifact; see {@link RsiChecks}.
+ * Scenarios, on synthetic histories driven through calculate() with plain IndicatorContexts:
+ * <ul>
+ *   <li>reset: full reseed of the whole history, per numeric mode and size;</li>
+ *   <li>append: one new bar per call on a resumed state;</li>
+ *   <li>forming: the last bar revised in place, as on every tick;</li>
+ *   <li>periods: reseeds across a sweep of periods at one size;</li>
+ *   <li>multi-period: MultiPeriodRsiIndicator reseed and append.</li>
+ * </ul>
+ * The series is built lazily, so each scenario is measured twice: unrendered, consuming only
+ * the drawables list, as a host that patches its geometry would, and rendered, reading every
+ * point of every polyline, as a host that redraws the whole line on each call would.
+ * Each scenario runs warmup iterations, then measured iterations of at least
+ * {@code --iteration-ms} each. One JSON object per scenario and rendering is printed to
+ * stdout, with the mean and best time per call and the bytes allocated per call by the
+ * calling thread, so runs can be diffed between releases. Progress goes to stderr.
+ * Options: {@code --sizes=1000,10000,100000,1000000} (10M bars need about -Xmx4g),
+ * {@code --modes=BigDecimal,Double,Fixed Point}, {@code --periods=2,14,50,200},
+ * {@code --warmup=5}, {@code --iterations=10}, {@code --iteration-ms=200},
+ * {@code --scenarios=reset,append,forming,periods,multi-period}, {@code --rendered=false,true}.
+ */
+public final class RsiBenchmark {
+
+    /** Bars appended per iteration of the append scenarios; each iteration restarts from a reseed. */
+    private static final int APPEND_BATCH = 1000;
+
+    private final int warmup;
+    private final int iterations;
+    private final long iterationNanos;
+    private final com.sun.management.ThreadMXBean threads =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    /** Sink for results, so the calls cannot be optimized away. */
+    private int sink;
+
+    private RsiBenchmark(int warmup, int iterations, long iterationMillis) {
+        this.warmup = warmup;
+        this.iterations = iterations;
+        this.iterationNanos = iterationMillis * 1_000_000L;
+    }
+
+    /** One benchmarked operation; {@link #setUp} runs untimed before every iteration. */
+    private interface Scenario {
+        default void setUp() {
+        }
+
+        /** Ops per iteration at most, for scenarios that consume a finite supply of bars. */
+        default int maxOps() {
+            return Integer.MAX_VALUE;
+        }
+
+        int run(int op);
+    }
+
+    public static void main(String[] args) {
+        Map<String, String> options = parseOptions(args);
+        int[] sizes = ints(options.getOrDefault("sizes", "1000,10000,100000,1000000"));
+        String[] modes = options.getOrDefault("modes", "BigDecimal,Double,Fixed Point").split(",");
+        int[] periods = ints(options.getOrDefault("periods", "2,14,50,200"));
+        List<String> scenarios = Arrays.asList(options.getOrDefault("scenarios", "reset,append,forming,periods,multi-period").split(","));
+        String[] renderings = options.getOrDefault("rendered", "false,true").split(",");
+        RsiBenchmark benchmark = new RsiBenchmark(
+            Integer.parseInt(options.getOrDefault("warmup", "5")),
+            Integer.parseInt(options.getOrDefault("iterations", "10")),
+            Long.parseLong(options.getOrDefault("iteration-ms", "200")));
+
+        int maxSize = Arrays.stream(sizes).max().orElse(0);
+        List<ApiKLine> history = history(maxSize + APPEND_BATCH, 42);
+
+        for (String rendering : renderings) {
+            boolean rendered = Boolean.parseBoolean(rendering);
+            ToIntFunction<List<DrawableObject>> consume = rendered ? RsiBenchmark::render : List::size;
+            for (int size : sizes) {
+                List<ApiKLine> bars = history.subList(0, size);
+                for (String mode : modes) {
+                    Map<String, Object> settings = RsiChecks.settings(mode, 14);
+                    if (scenarios.contains("reset")) {
+                        benchmark.measure("reset", mode, 14, size, rendered, reset(new StatefulRsiIndicator(), bars, settings, consume));
+                    }
+                    if (scenarios.contains("append")) {
+                        benchmark.measure("append", mode, 14, size, rendered, append(new StatefulRsiIndicator(), history, size, settings, consume));
+                    }
+                    if (scenarios.contains("forming")) {
+                        benchmark.measure("forming", mode, 14, size, rendered, forming(new StatefulRsiIndicator(), bars, settings, consume));
+                    }
+                }
+            }
+            if (scenarios.contains("periods")) {
+                int size = Math.min(maxSize, 100_000);
+                for (String mode : modes) {
+                    for (int period : periods) {
+                        benchmark.measure("periods", mode, period, size, rendered,
+                            reset(new StatefulRsiIndicator(), history.subList(0, size), RsiChecks.settings(mode, period), consume));
+                    }
+                }
+            }
+            if (scenarios.contains("multi-period")) {
+                for (int size : sizes) {
+                    Map<String, Object> settings = multiPeriodSettings();
+                    benchmark.measure("multi-period-reset", "Double", 0, size, rendered,
+                        reset(new MultiPeriodRsiIndicator(), history.subList(0, size), settings, consume));
+                    benchmark.measure("multi-period-append", "Double", 0, size, rendered,
+                        append(new MultiPeriodRsiIndicator(), history, size, settings, consume));
+                }
+            }
+        }
+        System.err.println("checksum " + benchmark.sink);
+    }
+
+    private static Scenario reset(CustomIndicator indicator, List<ApiKLine> bars, Map<String, Object> settings,
+                                  ToIntFunction<List<DrawableObject>> consume) {
+        return op -> consume.applyAsInt(indicator.calculate(new IndicatorContext(bars, settings, new HashMap<>(), true)));
+    }
+
+    private static Scenario append(CustomIndicator indicator, List<ApiKLine> history, int size, Map<String, Object> settings,
+                                   ToIntFunction<List<DrawableObject>> consume) {
+        Map<String, Object> state = new HashMap<>();
+        return new Scenario() {
+            @Override
+            public void setUp() {
+                state.clear();
+                indicator.calculate(new IndicatorContext(history.subList(0, size), settings, state, true));
+            }
+
+            @Override
+            public int maxOps() {
+                return APPEND_BATCH;
+            }
+
+            @Override
+            public int run(int op) {
+                int bars = size + 1 + op;
+                return consume.applyAsInt(indicator.calculate(new IndicatorContext(history.subList(0, bars), settings, state, false)));
+            }
+        };
+    }
+
+    private static Scenario forming(CustomIndicator indicator, List<ApiKLine> bars, Map<String, Object> settings,
+                                    ToIntFunction<List<DrawableObject>> consume) {
+        List<ApiKLine> live = new ArrayList<>(bars);
+        ApiKLine last = bars.get(bars.size() - 1);
+        ApiKLine[] ticks = {
+            kline(last.timestamp(), last.close().add(BigDecimal.ONE)),
+            kline(last.timestamp(), last.close().subtract(BigDecimal.ONE))
+        };
+        Map<String, Object> state = new HashMap<>();
+        indicator.calculate(new IndicatorContext(live, settings, state, true));
+        return op -> {
+            live.set(live.size() - 1, ticks[op & 1]);
+            return consume.applyAsInt(indicator.calculate(new IndicatorContext(live, settings, state, false)));
+        };
+    }
+
+    private void measure(String name, String mode, int period, int bars, boolean rendered, Scenario scenario) {
+        double bestNanos = Double.MAX_VALUE;
+        double totalNanos = 0.0;
+        long totalOps = 0;
+        long totalBytes = 0;
+        for (int iteration = 0; iteration < warmup + iterations; iteration++) {
+            scenario.setUp();
+            long bytesBefore = threads.getCurrentThreadAllocatedBytes();
+            long start = System.nanoTime();
+            long elapsed;
+            int ops = 0;
+            do {
+                sink += scenario.run(ops++);
+                elapsed = System.nanoTime() - start;
+            } while (elapsed < iterationNanos && ops < scenario.maxOps());
+            long bytes = threads.getCurrentThreadAllocatedBytes() - bytesBefore;
+            if (iteration >= warmup) {
+                bestNanos = Math.min(bestNanos, (double) elapsed / ops);
+                totalNanos += elapsed;
+                totalOps += ops;
+                totalBytes += bytes;
+            }
+        }
+        System.err.printf(Locale.ROOT, "%-20s %-12s period=%-4d bars=%-9d %-10s %,14.1f ns/op%n",
+            name, mode, period, bars, rendered ? "rendered" : "unrendered", totalNanos / totalOps);
+        System.out.printf(Locale.ROOT,
+            "{\"benchmark\":\"%s\",\"mode\":\"%s\",\"period\":%d,\"bars\":%d,\"rendered\":%b,\"ops\":%d,"
+                + "\"meanNsPerOp\":%.1f,\"bestNsPerOp\":%.1f,\"bytesPerOp\":%.1f}%n",
+            name, mode, period, bars, rendered, totalOps, totalNanos / totalOps, bestNanos, (double) totalBytes / totalOps);
+    }
+
+    /** A random walk of one-minute bars with two-decimal closes. */
+    private static List<ApiKLine> history(int size, long seed) {
+        Random random = new Random(seed);
+        List<ApiKLine> bars = new ArrayList<>(size);
+        long cents = 100_000;
+        for (int i = 0; i < size; i++) {
+            cents = Math.max(cents + random.nextInt(201) - 100, 1);
+            bars.add(kline(Instant.ofEpochSecond(60L * i), BigDecimal.valueOf(cents, 2)));
+        }
+        return bars;
+    }
+
+    private static ApiKLine kline(Instant timestamp, BigDecimal close) {
+        return new ApiKLine(timestamp, close, close, close, close, BigDecimal.ONE);
+    }
+
+    /**
+     * Reads every point of every polyline, as a renderer does, and folds them into a checksum
+     * so the reads cannot be optimized away.
+     */
+    private static int render(List<DrawableObject> drawables) {
+        int checksum = drawables.size();
+        for (DrawableObject drawable : drawables) {
+            if (drawable instanceof DrawablePolyline) {
+                for (DataPoint point : ((DrawablePolyline) drawable).points()) {
+                    checksum = 31 * checksum + point.time().hashCode() + point.price().hashCode();
+                }
+            }
+        }
+        return checksum;
+    }
+
+    private static Map<String, Object> multiPeriodSettings() {
+        Map<String, Object> settings = new HashMap<>();
+        int[] periods = {2, 7, 14, 21};
+        for (int slot = 0; slot < periods.length; slot++) {
+            settings.put("Period " + (slot + 1), periods[slot]);
+            settings.put("Color " + (slot + 1), Color.BLUE);
+        }
+        settings.put("Overbought", 70);
+        settings.put("Oversold", 30);
+        settings.put("Band Color", new Color(128, 128, 128, 50));
+        return settings;
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            if (!arg.startsWith("--") || equals < 0) {
+                throw new IllegalArgumentException("Expected --name=value, got " + arg);
+            }
+            options.put(arg.substring(2, equals), arg.substring(equals + 1));
+        }
+        return options;
+    }
+
+    private static int[] ints(String list) {
+        return Arrays.stream(list.split(",")).mapToInt(Integer::parseInt).toArray();
+    }
+}
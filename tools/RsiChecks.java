@@ -0,0 +1,323 @@
+package com.EcoChartPro.plugins.community;
+
+import com.EcoChartPro.api.indicator.ApiKLine;
+import com.EcoChartPro.api.indicator.drawing.DataPoint;
+import com.EcoChartPro.api.indicator.drawing.DrawableObject;
+import com.EcoChartPro.api.indicator.drawing.DrawablePolyline;
+import com.EcoChartPro.core.indicator.IndicatorContext;
+
+import com.sun.management.ThreadMXBean;
+
+import java.awt.Color;
+import java.lang.management.CompilationMXBean;
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.RandomAccess;
+import java.util.function.IntConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Standalone correctness checks, run with
+ * {@code java com.EcoChartPro.plugins.community.RsiChecks [--checks=golden,window,allocation]}, by default all.
+ * Each check prints one line per case and the process exits with status 1 if any case fails,
+ * so a build can gate on it. Like the other tools here it is kept out of the plugin sources,
+ * so it does not ship in the plugin artifact, and is compiled onto the core classes with
+ * {@code javac -cp <core classes> tools/*.java}.
+ * <ul>
+ *   <li>golden: FIXED_POINT output equals BIG_DECIMAL output point for point, including the
+ *       scale of every value, on a fixed set of synthetic histories across close scales,
+ *       magnitudes and periods, both reseeded and resumed bar by bar.</li>
+ *   <li>window: on a host that keeps a sliding window of bars, the series drops the points of
+ *       trimmed bars, so calculate() and calculateDelta() stay aligned with the window.</li>
+ *   <li>allocation: once warmed up, {@link PrimitiveRsiEngine} appending and revising bars and
+ *       {@link RsiStream} taking bars and ticks allocate zero bytes on the calling thread, as
+ *       counted by the JVM's thread allocation counter, in all but at most one of ten windows
+ *       of bars.</li>
+ * </ul>
+ */
+public final class RsiChecks {
+
+    private static final int ALLOCATION_BARS = 10_000;
+    private static final int ALLOCATION_WINDOWS = 10;
+    /**
+     * Measured windows that may allocate: a single JIT switch that lands in the measured pass,
+     * e.g. an OSR entry, allocates once, while per-bar garbage shows up in every window.
+     */
+    private static final int ALLOCATING_WINDOWS_ALLOWED = 1;
+    private static final int MIN_WARMUP_PASSES = 3;
+    private static final int MAX_WARMUP_PASSES = 20;
+    private static final int SLIDING_WINDOW = 1_000;
+    private static final int SLIDING_BARS = 20_000;
+
+    private int failures;
+
+    private RsiChecks() {
+    }
+
+    public static void main(String[] args) {
+        String checks = "golden,window,allocation";
+        for (String arg : args) {
+            if (!arg.startsWith("--checks=")) {
+                throw new IllegalArgumentException("Expected --checks=name,..., got " + arg);
+            }
+            checks = arg.substring("--checks=".length());
+        }
+        RsiChecks run = new RsiChecks();
+        for (String check : checks.split(",")) {
+            switch (check) {
+                case "golden":
+                    run.golden();
+                    break;
+                case "window":
+                    run.window();
+                    break;
+                case "allocation":
+                    run.allocation();
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown check " + check);
+            }
+        }
+        System.out.println(run.failures == 0 ? "all checks passed" : run.failures + " check(s) failed");
+        System.exit(run.failures == 0 ? 0 : 1);
+    }
+
+    private void golden() {
+        // {start as unscaled close, scale, largest move per bar}: cents, FX pips, 8-decimal
+        // micro prices, a large 8-decimal price, whole numbers, and the full 10-digit scale.
+        long[][] datasets = {
+            {100_000, 2, 100},
+            {108_512, 5, 40},
+            {1_234, 8, 2},
+            {6_500_012_345_678L, 8, 3},
+            {4_200, 0, 15},
+            {123_456_789_012L, 10, 5_000_000}
+        };
+        int[] periods = {2, 14, 50, 200};
+        for (long[] dataset : datasets) {
+            List<ApiKLine> bars = history(3_000, dataset[0], (int) dataset[1], (int) dataset[2], dataset[0]);
+            for (int period : periods) {
+                String name = "golden scale=" + dataset[1] + " start=" + dataset[0] + " period=" + period;
+                check(name + " reseed", points(bars, "BigDecimal", period).equals(points(bars, "Fixed Point", period)));
+                check(name + " resumed", resumed(bars, "BigDecimal", period).equals(resumed(bars, "Fixed Point", period)));
+            }
+        }
+    }
+
+    private void window() {
+        List<ApiKLine> bars = history(SLIDING_BARS, 100_000, 2, 100, 7);
+        int period = 14;
+        for (StatefulRsiIndicator.NumericMode mode : StatefulRsiIndicator.NumericMode.values()) {
+            Map<String, Object> settings = settings(mode.label(), period);
+            StatefulRsiIndicator full = new StatefulRsiIndicator();
+            Map<String, Object> fullState = new HashMap<>();
+            // A delta host applies each delta to the points it holds.
+            StatefulRsiIndicator patched = new StatefulRsiIndicator();
+            Map<String, Object> patchedState = new HashMap<>();
+            List<DataPoint> held = new ArrayList<>();
+            boolean aligned = true;
+            boolean patchedEqual = true;
+            for (int end = SLIDING_WINDOW; end <= bars.size(); end++) {
+                int start = end - SLIDING_WINDOW;
+                List<ApiKLine> window = bars.subList(start, end);
+                boolean reset = start == 0;
+                List<DataPoint> points = polyline(full.calculate(new IndicatorContext(window, settings, fullState, reset)));
+                int first = Math.max(start, period); // The first bar with a point that is still in the window.
+                aligned &= points.size() == end - first && points.get(0).time().equals(bars.get(first).timestamp());
+
+                RsiDelta delta = patched.calculateDelta(new IndicatorContext(window, settings, patchedState, reset));
+                held.subList(delta.replaceFrom(), held.size()).clear();
+                held.addAll(delta.points());
+                patchedEqual &= held.equals(points);
+            }
+            check("window " + mode.label() + " series follows a sliding window of " + SLIDING_WINDOW + " bars", aligned);
+            check("window " + mode.label() + " deltas patch to the same series", patchedEqual);
+        }
+    }
+
+    private void allocation() {
+        ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        if (!threads.isThreadAllocatedMemorySupported()) {
+            check("allocation: thread allocation counter unsupported by this JVM", false);
+            return;
+        }
+        threads.setThreadAllocatedMemoryEnabled(true);
+        List<ApiKLine> bars = history((ALLOCATION_WINDOWS + 1) * ALLOCATION_BARS, 100_000, 2, 100, 19);
+        long[] timestamps = new long[bars.size()];
+        double[] closes = new double[bars.size()];
+        for (int i = 0; i < bars.size(); i++) {
+            timestamps[i] = bars.get(i).timestamp().toEpochMilli();
+            closes[i] = StatefulRsiIndicator.toDouble(bars.get(i).close());
+        }
+
+        checkAllocation("PrimitiveRsiEngine", threads, () -> {
+            Growing view = new Growing(bars);
+            PrimitiveRsiEngine engine = new PrimitiveRsiEngine(14, bars.size());
+            return i -> view.append(engine, i + 1);
+        });
+        checkAllocation("RsiStream", threads, () -> {
+            RsiStream stream = new RsiStream(14);
+            return i -> {
+                stream.onBar(timestamps[i], closes[i]);
+                stream.onTick(closes[i + 1]);
+            };
+        });
+    }
+
+    /**
+     * Warms up with passes over fresh instances, at least {@link #MIN_WARMUP_PASSES} and then
+     * until a pass allocates nothing and the JIT compiles nothing during it, up to
+     * {@link #MAX_WARMUP_PASSES}. While compiled code is still being installed or deoptimized,
+     * the switch can allocate once on the calling thread. Then passes if one more pass
+     * allocates nothing in all but at most {@link #ALLOCATING_WINDOWS_ALLOWED} of its windows.
+     */
+    private void checkAllocation(String engine, ThreadMXBean threads, Supplier<IntConsumer> instances) {
+        CompilationMXBean jit = ManagementFactory.getCompilationMXBean();
+        boolean jitTimed = jit != null && jit.isCompilationTimeMonitoringSupported();
+        int warmupPasses = 0;
+        boolean warmedUp;
+        do {
+            long compileMillis = jitTimed ? jit.getTotalCompilationTime() : 0L;
+            long[] allocated = allocatedPerWindow(threads, instances.get());
+            warmupPasses++;
+            warmedUp = warmupPasses >= MIN_WARMUP_PASSES && allocationFree(allocated)
+                && (!jitTimed || jit.getTotalCompilationTime() == compileMillis);
+        } while (!warmedUp && warmupPasses < MAX_WARMUP_PASSES);
+        long[] allocated = allocatedPerWindow(threads, instances.get());
+        check("allocation " + engine + " bytes per window of " + ALLOCATION_BARS + " bars " + Arrays.toString(allocated)
+            + " after " + warmupPasses + " warm-up passes",
+            warmedUp && Arrays.stream(allocated).filter(bytes -> bytes != 0).count() <= ALLOCATING_WINDOWS_ALLOWED);
+    }
+
+    /**
+     * Bytes allocated on this thread in each window of steps after the first, which holds the
+     * instance's seeding and is not measured.
+     */
+    private static long[] allocatedPerWindow(ThreadMXBean threads, IntConsumer step) {
+        long thread = Thread.currentThread().getId();
+        for (int i = 0; i < ALLOCATION_BARS; i++) {
+            step.accept(i);
+        }
+        long[] allocated = new long[ALLOCATION_WINDOWS];
+        for (int w = 0; w < ALLOCATION_WINDOWS; w++) {
+            long before = threads.getThreadAllocatedBytes(thread);
+            // The last bar is left out: a step may read the bar after its own.
+            for (int i = (w + 1) * ALLOCATION_BARS; i < (w + 2) * ALLOCATION_BARS - 1; i++) {
+                step.accept(i);
+            }
+            allocated[w] = threads.getThreadAllocatedBytes(thread) - before;
+        }
+        return allocated;
+    }
+
+    private static boolean allocationFree(long[] allocated) {
+        return Arrays.stream(allocated).allMatch(bytes -> bytes == 0);
+    }
+
+    private void check(String name, boolean passed) {
+        System.out.println((passed ? "PASS " : "FAIL ") + name);
+        if (!passed) {
+            failures++;
+        }
+    }
+
+    private static List<DataPoint> points(List<ApiKLine> bars, String mode, int period) {
+        return polyline(new StatefulRsiIndicator().calculate(new IndicatorContext(bars, settings(mode, period), new HashMap<>(), true)));
+    }
+
+    /** Output of the last call after feeding the second half of the history one bar per call. */
+    private static List<DataPoint> resumed(List<ApiKLine> bars, String mode, int period) {
+        StatefulRsiIndicator indicator = new StatefulRsiIndicator();
+        Map<String, Object> settings = settings(mode, period);
+        Map<String, Object> state = new HashMap<>();
+        List<DrawableObject> drawables = null;
+        for (int end = bars.size() / 2; end <= bars.size(); end++) {
+            drawables = indicator.calculate(new IndicatorContext(bars.subList(0, end), settings, state, end == bars.size() / 2));
+        }
+        return polyline(drawables);
+    }
+
+    private static List<DataPoint> polyline(List<DrawableObject> drawables) {
+        for (DrawableObject drawable : drawables) {
+            if (drawable instanceof DrawablePolyline) {
+                return new ArrayList<>(((DrawablePolyline) drawable).points());
+            }
+        }
+        return List.of();
+    }
+
+    /** A seeded random walk with flat runs and occasional jumps of ten moves. */
+    static List<ApiKLine> history(int size, long start, int scale, int maxMove, long seed) {
+        Random random = new Random(seed);
+        List<ApiKLine> bars = new ArrayList<>(size);
+        long unscaled = start;
+        for (int i = 0; i < size; i++) {
+            int roll = random.nextInt(20);
+            long move = roll == 0 ? 0 : random.nextInt(2 * maxMove + 1) - maxMove;
+            unscaled = Math.max(unscaled + (roll == 1 ? 10 * move : move), 1);
+            BigDecimal close = BigDecimal.valueOf(unscaled, scale);
+            bars.add(new ApiKLine(Instant.ofEpochSecond(60L * i), close, close, close, close, BigDecimal.ONE));
+        }
+        return bars;
+    }
+
+    static Map<String, Object> settings(String mode, int period) {
+        Map<String, Object> settings = new HashMap<>();
+        settings.put("Period", period);
+        settings.put("Overbought", 70);
+        settings.put("Oversold", 30);
+        settings.put("RSI Color", new Color(156, 39, 176));
+        settings.put("Band Color", new Color(128, 128, 128, 50));
+        settings.put("Numeric Mode", mode);
+        return settings;
+    }
+
+    /**
+     * A prefix of a prebuilt history whose size is moved in place, since subList would allocate
+     * inside the measured window. While {@code revised}, the last bar reads as a tick above its
+     * close, from bars built up front.
+     */
+    private static final class Growing extends AbstractList<ApiKLine> implements RandomAccess {
+        private final List<ApiKLine> bars;
+        private final ApiKLine[] ticks;
+        private int size;
+        private boolean revised;
+
+        Growing(List<ApiKLine> bars) {
+            this.bars = bars;
+            this.ticks = new ApiKLine[bars.size()];
+            for (int i = 0; i < ticks.length; i++) {
+                ApiKLine bar = bars.get(i);
+                BigDecimal tick = bar.close().add(BigDecimal.valueOf(1, bar.close().scale()));
+                ticks[i] = new ApiKLine(bar.timestamp(), bar.open(), tick.max(bar.high()), bar.low(), tick, bar.volume());
+            }
+        }
+
+        /** Updates {@code engine} with bar {@code end - 1} appended, then with it revised. */
+        void append(PrimitiveRsiEngine engine, int end) {
+            size = end;
+            revised = false;
+            engine.update(this);
+            revised = true;
+            engine.update(this);
+        }
+
+        @Override
+        public ApiKLine get(int index) {
+            return revised && index == size - 1 ? ticks[index] : bars.get(index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
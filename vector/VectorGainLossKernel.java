@@ -0,0 +1,41 @@
+package com.EcoChartPro.plugins.community;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * {@link GainLossKernel} on the incubating Vector API. This is the optional vector source set:
+ * it is kept out of the core sources so they compile with plain javac and without the
+ * incubator warning, and is compiled separately onto the same classpath with
+ * {@code javac --add-modules jdk.incubator.vector -cp <core classes> vector/*.java}.
+ * It is only ever loaded by name through {@link GainLossKernel#INSTANCE}, which uses the
+ * scalar loop when the class is absent or the module is not resolved at run time.
+ */
+final class VectorGainLossKernel implements GainLossKernel {
+
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    VectorGainLossKernel() {
+        // Touch the species so a missing module fails here, inside the loader's catch.
+        SPECIES.length();
+    }
+
+    @Override
+    public void split(double[] closes, int from, int to, double[] gains, double[] losses) {
+        if (to - from < SPECIES.length()) {
+            // Incremental syncs touch a bar or two; don't materialize vectors for them.
+            GainLossKernel.splitScalar(closes, from, to, gains, losses);
+            return;
+        }
+        DoubleVector zero = DoubleVector.zero(SPECIES);
+        int i = from;
+        int upper = from + SPECIES.loopBound(to - from);
+        for (; i < upper; i += SPECIES.length()) {
+            DoubleVector change = DoubleVector.fromArray(SPECIES, closes, i)
+                .sub(DoubleVector.fromArray(SPECIES, closes, i - 1));
+            change.max(zero).intoArray(gains, i);
+            change.neg().max(zero).intoArray(losses, i);
+        }
+        GainLossKernel.splitScalar(closes, i, to, gains, losses);
+    }
+}